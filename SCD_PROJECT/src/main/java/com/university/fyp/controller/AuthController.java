@@ -1,16 +1,22 @@
 package com.university.fyp.controller;
 
-import com.university.fyp.dto.JwtResponse;
 import com.university.fyp.dto.LoginRequest;
 import com.university.fyp.dto.MessageResponse;
 import com.university.fyp.dto.RegisterRequest;
 import com.university.fyp.dto.UserDTO;
+import com.university.fyp.exception.TooManyRequestsException;
 import com.university.fyp.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,14 +25,20 @@ public class AuthController {
 
     private final AuthService authService;
 
+    // The request thread is released while the password is verified. With
+    // server.forward-headers-strategy set, the remote address is the client's
+    // as reported by a trusted proxy, not the proxy's own.
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         try {
-            JwtResponse response = authService.login(loginRequest);
-            return ResponseEntity.ok(response);
+            return authService.login(loginRequest, request.getRemoteAddr())
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> loginFailed(e instanceof CompletionException && e.getCause() != null
+                            ? e.getCause()
+                            : e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+            return CompletableFuture.completedFuture(loginFailed(e));
         }
     }
 
@@ -41,6 +53,20 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        try {
+            if (!authorization.startsWith("Bearer ")) {
+                throw new RuntimeException("Missing bearer token");
+            }
+            authService.logout(authorization.substring(7));
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         try {
@@ -51,4 +77,14 @@ public class AuthController {
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
         }
     }
+
+    private ResponseEntity<?> loginFailed(Throwable e) {
+        if (e instanceof TooManyRequestsException tooMany) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(tooMany.getRetryAfterSeconds()))
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage(), false));
+    }
 }
@@ -1,22 +1,33 @@
 package com.university.fyp.controller;
 
+import com.university.fyp.dto.CursorPage;
+import com.university.fyp.dto.DocumentContent;
 import com.university.fyp.dto.DocumentDTO;
 import com.university.fyp.dto.DocumentReviewRequest;
+import com.university.fyp.dto.FileInfo;
 import com.university.fyp.dto.MessageResponse;
 import com.university.fyp.dto.ReviewDTO;
 import com.university.fyp.entity.Document;
-import com.university.fyp.repository.GradeRepository;
+import com.university.fyp.exception.PayloadTooLargeException;
+import com.university.fyp.exception.StatusConflictException;
+import com.university.fyp.service.DocumentExportService;
 import com.university.fyp.service.DocumentService;
+import com.university.fyp.service.DocumentUploadService;
 import com.university.fyp.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -26,7 +37,9 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final ReviewService reviewService;
-    private final GradeRepository gradeRepository;
+    private final ContentResponseWriter contentResponseWriter;
+    private final DocumentUploadService documentUploadService;
+    private final DocumentExportService documentExportService;
 
     @PostMapping("/upload")
     @PreAuthorize("hasRole('STUDENT')")
@@ -38,9 +51,8 @@ public class DocumentController {
             @RequestParam(value = "changeDescription", required = false) String changeDescription,
             @RequestParam(value = "deadlineId", required = false) Long deadlineId) {
         try {
-            Document document = documentService.uploadDocument(
+            DocumentDTO documentDTO = documentUploadService.upload(
                     groupId, title, type, file, changeDescription, deadlineId);
-            DocumentDTO documentDTO = DocumentDTO.fromDocument(document);
             return ResponseEntity.ok(documentDTO);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -48,6 +60,35 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Single-pass upload: the request body is the raw file, metadata goes in the
+     * query string. Avoids multipart buffering and is bounded by
+     * upload.max-file-size rather than the multipart limit.
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> uploadDocumentStream(
+            @RequestParam("groupId") Long groupId,
+            @RequestParam("title") String title,
+            @RequestParam("type") Document.DocumentType type,
+            @RequestParam(value = "changeDescription", required = false) String changeDescription,
+            @RequestParam(value = "deadlineId", required = false) Long deadlineId,
+            @RequestParam(value = "fileName", required = false) String fileName,
+            HttpServletRequest request) {
+        try {
+            DocumentDTO documentDTO = documentUploadService.uploadStream(groupId, title, type,
+                    request.getInputStream(), request.getContentLengthLong(), FileInfo.of(fileName, null),
+                    changeDescription, deadlineId);
+            return ResponseEntity.ok(documentDTO);
+        } catch (PayloadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
     @PutMapping("/{documentId}/submit")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> submitDocument(@PathVariable Long documentId) {
@@ -55,6 +96,9 @@ public class DocumentController {
             Document document = documentService.submitDocument(documentId);
             DocumentDTO documentDTO = DocumentDTO.fromDocument(document);
             return ResponseEntity.ok(documentDTO);
+        } catch (StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
@@ -74,6 +118,9 @@ public class DocumentController {
                     reviewRequest.getComments());
             DocumentDTO documentDTO = DocumentDTO.fromDocument(document);
             return ResponseEntity.ok(documentDTO);
+        } catch (StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
@@ -89,6 +136,9 @@ public class DocumentController {
             Document document = documentService.updateDocumentStatus(documentId, status);
             DocumentDTO documentDTO = DocumentDTO.fromDocument(document);
             return ResponseEntity.ok(documentDTO);
+        } catch (StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
@@ -118,8 +168,14 @@ public class DocumentController {
 
     @GetMapping("/supervisor/{supervisorId}")
     @PreAuthorize("hasAnyRole('SUPERVISOR', 'COMMITTEE_MEMBER', 'FYP_COMMITTEE')")
-    public ResponseEntity<?> getDocumentsBySupervisor(@PathVariable Long supervisorId) {
+    public ResponseEntity<?> getDocumentsBySupervisor(@PathVariable Long supervisorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
+            // Paginated when either parameter is given, the full list otherwise
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(documentService.getDocumentDTOPageBySupervisor(supervisorId, cursor, limit));
+            }
             return ResponseEntity.ok(documentService.getDocumentDTOsBySupervisor(supervisorId));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -129,8 +185,13 @@ public class DocumentController {
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('COMMITTEE_MEMBER', 'FYP_COMMITTEE')")
-    public ResponseEntity<?> getDocumentsByStatus(@PathVariable Document.DocumentStatus status) {
+    public ResponseEntity<?> getDocumentsByStatus(@PathVariable Document.DocumentStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(documentService.getDocumentDTOPageByStatus(status, cursor, limit));
+            }
             return ResponseEntity.ok(documentService.getAllDocumentDTOsByStatus(status));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -140,30 +201,48 @@ public class DocumentController {
 
     @GetMapping("/committee/gradable")
     @PreAuthorize("hasAnyRole('COMMITTEE_MEMBER', 'FYP_COMMITTEE')")
-    public ResponseEntity<?> getGradableDocuments() {
+    public ResponseEntity<?> getGradableDocuments(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            // Fetch both APPROVED and REVISION_REQUESTED documents for committee grading
-            List<DocumentDTO> approved = documentService.getAllDocumentDTOsByStatus(Document.DocumentStatus.APPROVED);
-            List<DocumentDTO> revisionRequested = documentService
-                    .getAllDocumentDTOsByStatus(Document.DocumentStatus.REVISION_REQUESTED);
-
-            // Combine both lists
-            approved.addAll(revisionRequested);
-
-            // Filter out documents that already have grades (to prevent duplicate grading)
-            List<DocumentDTO> ungradedDocs = approved.stream()
-                    .filter(doc -> {
-                        // Check if this document has any grades
-                        List<?> grades = gradeRepository.findByDocumentId(doc.getId());
-                        return grades.isEmpty();
-                    })
-                    .collect(Collectors.toList());
+            // APPROVED and REVISION_REQUESTED documents without a grade, oldest submission first
+            CursorPage<DocumentDTO> page = documentService.getGradableDocumentDTOs(cursor, limit);
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(page);
+            }
+            return ResponseEntity.ok(page.getItems());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
 
-            return ResponseEntity.ok(ungradedDocs);
+    /**
+     * Streams one ZIP with every group's current document for a deadline
+     * and/or document type, plus a manifest. Pass the last fully received
+     * group id as {@code after} to resume an interrupted download.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('FYP_COMMITTEE')")
+    public ResponseEntity<?> exportDocuments(
+            @RequestParam(value = "type", required = false) Document.DocumentType type,
+            @RequestParam(value = "deadlineId", required = false) Long deadlineId,
+            @RequestParam(value = "after", required = false) Long afterGroupId,
+            @RequestParam(value = "limit", required = false) Integer maxGroups) {
+        try {
+            documentExportService.validate(type, deadlineId);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
         }
+        String fileName = "export-" + (type != null ? type.name() : "deadline-" + deadlineId)
+                + (afterGroupId != null ? "-after-" + afterGroupId : "") + ".zip";
+        StreamingResponseBody body = out -> documentExportService.writeArchive(type, deadlineId, afterGroupId,
+                maxGroups, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 
     @GetMapping("/{documentId}/versions")
@@ -176,6 +255,46 @@ public class DocumentController {
         }
     }
 
+    @GetMapping("/{documentId}/processing")
+    public ResponseEntity<?> getProcessingStatus(@PathVariable Long documentId) {
+        try {
+            return ResponseEntity.ok(documentService.getProcessingStatus(documentId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    @GetMapping("/{documentId}/content")
+    public ResponseEntity<?> downloadDocument(@PathVariable Long documentId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DocumentContent content;
+        try {
+            content = documentService.getDocumentContent(documentId);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+        // The current file changes with each upload, so clients must revalidate
+        contentResponseWriter.write(content, "private, no-cache", request, response);
+        return null;
+    }
+
+    @GetMapping("/{documentId}/versions/{versionId}/content")
+    public ResponseEntity<?> downloadDocumentVersion(@PathVariable Long documentId, @PathVariable Long versionId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DocumentContent content;
+        try {
+            content = documentService.getVersionContent(documentId, versionId);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+        // A version's file never changes
+        contentResponseWriter.write(content, "private, max-age=31536000, immutable", request, response);
+        return null;
+    }
+
     @GetMapping("/{documentId}/reviews")
     public ResponseEntity<?> getDocumentReviews(@PathVariable Long documentId) {
         try {
@@ -3,9 +3,11 @@ package com.university.fyp.controller;
 import com.university.fyp.dto.GradeRequest;
 import com.university.fyp.dto.MessageResponse;
 import com.university.fyp.entity.Grade;
+import com.university.fyp.exception.StatusConflictException;
 import com.university.fyp.service.GradeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +31,9 @@ public class GradeController {
                     gradeRequest.getFeedback(),
                     gradeRequest.getIsFinal());
             return ResponseEntity.ok(grade);
+        } catch (StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
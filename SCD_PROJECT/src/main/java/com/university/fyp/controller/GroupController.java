@@ -72,8 +72,14 @@ public class GroupController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllGroups() {
+    public ResponseEntity<?> getAllGroups(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
+            // Paginated when either parameter is given, the full list otherwise
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(groupService.getGroupResponsePage(cursor, limit));
+            }
             List<GroupResponse> groupResponses = groupService.getAllGroupResponses();
             return ResponseEntity.ok(groupResponses);
         } catch (Exception e) {
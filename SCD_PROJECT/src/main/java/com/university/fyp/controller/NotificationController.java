@@ -16,8 +16,14 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @GetMapping
-    public ResponseEntity<?> getUserNotifications() {
+    public ResponseEntity<?> getUserNotifications(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
+            // Paginated when either parameter is given, the full list otherwise
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(notificationService.getUserNotificationPage(cursor, limit));
+            }
             return ResponseEntity.ok(notificationService.getUserNotifications());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
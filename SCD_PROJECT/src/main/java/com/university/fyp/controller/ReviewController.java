@@ -3,9 +3,11 @@ package com.university.fyp.controller;
 import com.university.fyp.dto.MessageResponse;
 import com.university.fyp.dto.ReviewRequest;
 import com.university.fyp.entity.Review;
+import com.university.fyp.exception.StatusConflictException;
 import com.university.fyp.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +29,9 @@ public class ReviewController {
                     reviewRequest.getComments(),
                     reviewRequest.getStatus());
             return ResponseEntity.ok(review);
+        } catch (StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
@@ -55,8 +60,14 @@ public class ReviewController {
     }
 
     @GetMapping("/reviewer/{reviewerId}")
-    public ResponseEntity<?> getReviewsByReviewer(@PathVariable Long reviewerId) {
+    public ResponseEntity<?> getReviewsByReviewer(@PathVariable Long reviewerId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
+            // Paginated when either parameter is given, the full list otherwise
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(reviewService.getReviewPageByReviewer(reviewerId, cursor, limit));
+            }
             return ResponseEntity.ok(reviewService.getReviewsByReviewer(reviewerId));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
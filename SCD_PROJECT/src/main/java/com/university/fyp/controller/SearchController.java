@@ -0,0 +1,31 @@
+package com.university.fyp.controller;
+
+import com.university.fyp.dto.MessageResponse;
+import com.university.fyp.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    /**
+     * Full-text search over documents and review comments the caller may
+     * access.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(searchIndexService.search(query, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+}
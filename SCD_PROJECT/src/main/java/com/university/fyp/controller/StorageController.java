@@ -0,0 +1,44 @@
+package com.university.fyp.controller;
+
+import com.university.fyp.dto.MessageResponse;
+import com.university.fyp.service.StorageGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/fyp-committee/storage")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('FYP_COMMITTEE')")
+public class StorageController {
+
+    private final StorageGarbageCollector storageGarbageCollector;
+
+    /**
+     * Dry run: reports unreferenced files without deleting anything.
+     */
+    @GetMapping("/gc")
+    public ResponseEntity<?> garbageReport() {
+        try {
+            return ResponseEntity.ok(storageGarbageCollector.collect(true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    /**
+     * Runs a collection now instead of waiting for the nightly one.
+     */
+    @PostMapping("/gc")
+    public ResponseEntity<?> collectGarbage() {
+        try {
+            return ResponseEntity.ok(storageGarbageCollector.collect(false));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+}
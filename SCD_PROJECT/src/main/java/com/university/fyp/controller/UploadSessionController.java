@@ -0,0 +1,80 @@
+package com.university.fyp.controller;
+
+import com.university.fyp.dto.DocumentDTO;
+import com.university.fyp.dto.MessageResponse;
+import com.university.fyp.dto.UploadSessionRequest;
+import com.university.fyp.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Resumable chunked uploads: create a session, PUT each chunk as the raw
+ * request body with its byte offset, then commit. GET returns the chunks
+ * received so far so an interrupted client can resend only the missing ones.
+ */
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('STUDENT')")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<?> createSession(@Valid @RequestBody UploadSessionRequest request) {
+        try {
+            return ResponseEntity.ok(uploadSessionService.createSession(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getSession(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(uploadSessionService.getSession(sessionId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    @PutMapping("/{sessionId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String sessionId, @RequestParam("offset") long offset,
+            HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(uploadSessionService.writeChunk(sessionId, offset, request.getInputStream()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    @PostMapping("/{sessionId}/commit")
+    public ResponseEntity<?> commit(@PathVariable String sessionId) {
+        try {
+            DocumentDTO documentDTO = uploadSessionService.commit(sessionId);
+            return ResponseEntity.ok(documentDTO);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> abort(@PathVariable String sessionId) {
+        try {
+            uploadSessionService.abort(sessionId);
+            return ResponseEntity.ok(new MessageResponse("Upload cancelled"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.university.fyp.controller;
 
 import com.university.fyp.dto.MessageResponse;
+import com.university.fyp.service.UserImportService;
 import com.university.fyp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @GetMapping("/supervisors")
     @PreAuthorize("hasRole('FYP_COMMITTEE')")
@@ -39,4 +43,20 @@ public class UserController {
                     .body(new MessageResponse("Error: " + e.getMessage(), false));
         }
     }
+
+    /**
+     * Bulk user import. The body is streamed as CSV (header: email,fullName,password,role)
+     * or a JSON array of the same fields; the response reports the outcome of each row.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/json" })
+    @PreAuthorize("hasRole('FYP_COMMITTEE')")
+    public ResponseEntity<?> importUsers(HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(request.getInputStream(),
+                    request.getContentType()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage(), false));
+        }
+    }
 }
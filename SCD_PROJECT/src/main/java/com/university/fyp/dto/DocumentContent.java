@@ -0,0 +1,18 @@
+package com.university.fyp.dto;
+
+import com.university.fyp.storage.StoredObject;
+
+/**
+ * A stored document file resolved for download.
+ *
+ * @param object      handle to the stored content
+ * @param etag        quoted entity tag; strong when derived from the content hash
+ * @param fileName    name suggested to the client
+ * @param contentType media type of the file, or null when unknown
+ */
+public record DocumentContent(StoredObject object, String etag, String fileName, String contentType) {
+
+    public long size() {
+        return object.size();
+    }
+}
@@ -1,11 +1,17 @@
 package com.university.fyp.dto;
 
 import com.university.fyp.entity.Document;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+// The all-args constructor backs the DocumentRepository projection queries;
+// keep the field order in sync with DocumentRepository.DTO_SELECT
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class DocumentDTO {
     private Long id;
     private Long groupId;
@@ -0,0 +1,84 @@
+package com.university.fyp.dto;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Name and media type of an uploaded file as the client sent it. Stored
+ * content is addressed by hash only, so this is what downloads and exports
+ * are named and typed from.
+ *
+ * @param fileName    original file name without any directory part, or null
+ * @param contentType media type, or null when unknown
+ */
+public record FileInfo(String fileName, String contentType) {
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
+    /**
+     * Cleans up what the client sent. Directory parts some browsers include
+     * are dropped, and a missing or generic content type is guessed from the
+     * file name.
+     */
+    public static FileInfo of(String fileName, String contentType) {
+        String name = null;
+        if (fileName != null) {
+            name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1).strip();
+            if (name.isEmpty()) {
+                name = null;
+            } else if (name.length() > MAX_FILE_NAME_LENGTH) {
+                // Keep the extension when shortening
+                String extension = extensionOf(name);
+                name = name.substring(0, MAX_FILE_NAME_LENGTH - extension.length()) + extension;
+            }
+        }
+
+        String type = null;
+        if (contentType != null && !contentType.isBlank()
+                && !contentType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+            try {
+                type = MediaType.parseMediaType(contentType).toString();
+            } catch (IllegalArgumentException e) {
+                // Ignore malformed types and fall back to guessing
+            }
+        }
+        if (type == null && name != null) {
+            type = MediaTypeFactory.getMediaType(name).map(MediaType::toString).orElse(null);
+        }
+        if (type != null && type.length() > MAX_CONTENT_TYPE_LENGTH) {
+            type = null;
+        }
+        return new FileInfo(name, type);
+    }
+
+    /**
+     * What is known about a stored file. Files uploaded before names were
+     * recorded have none, but legacy files (those without a content hash)
+     * kept the original extension in their own name.
+     */
+    public static FileInfo stored(String originalFilename, String contentType, String filePath,
+            String contentHash) {
+        if (originalFilename == null && contentHash == null) {
+            return of(filePath, contentType);
+        }
+        return new FileInfo(originalFilename, contentType);
+    }
+
+    /**
+     * The extension of the original file name including the dot, or an empty
+     * string.
+     */
+    public String extension() {
+        return fileName != null ? extensionOf(fileName) : "";
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        // Short alphanumeric extensions only, so odd names cannot inject anything
+        if (dot <= 0 || name.length() - dot > 10 || !name.substring(dot + 1).matches("[A-Za-z0-9]+")) {
+            return "";
+        }
+        return name.substring(dot);
+    }
+}
@@ -0,0 +1,24 @@
+package com.university.fyp.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class GarbageCollectionReport {
+
+    private boolean dryRun;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long scannedObjects;
+    private long scannedBytes;
+    private long referencedObjects;
+    private long candidateObjects; // Unreferenced and older than the grace period
+    private long candidateBytes;
+    private long reclaimedObjects;
+    private long reclaimedBytes;
+    private long skippedObjects; // Referenced again or being uploaded when swept
+    private List<String> sample = new ArrayList<>(); // First few candidates, for review
+}
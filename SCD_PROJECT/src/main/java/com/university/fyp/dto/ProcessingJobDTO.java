@@ -0,0 +1,33 @@
+package com.university.fyp.dto;
+
+import com.university.fyp.entity.ProcessingJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingJobDTO {
+
+    private ProcessingJob.Stage stage;
+    private ProcessingJob.Status status;
+    private Integer attempts;
+    private String result;
+    private String lastError;
+    private Instant nextAttemptAt; // When a PENDING stage is retried
+    private Instant finishedAt;
+
+    public static ProcessingJobDTO fromJob(ProcessingJob job) {
+        return new ProcessingJobDTO(
+                job.getStage(),
+                job.getStatus(),
+                job.getAttempts(),
+                job.getResult(),
+                job.getLastError(),
+                job.getNextAttemptAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,20 @@
+package com.university.fyp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+
+    private String kind; // DOCUMENT or REVIEW
+    private Long documentId;
+    private Long reviewId; // Only for REVIEW hits
+    private Long groupId;
+    private String title;
+    private String documentType;
+    private String snippet; // Start of the review comments
+    private Float score;
+}
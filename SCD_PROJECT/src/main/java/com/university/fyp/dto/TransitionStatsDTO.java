@@ -0,0 +1,18 @@
+package com.university.fyp.dto;
+
+import com.university.fyp.entity.Document;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionStatsDTO {
+
+    private Document.DocumentStatus fromStatus;
+    private Document.DocumentStatus toStatus;
+    private Long count;
+    private Double averageDurationMs; // Mean time spent in fromStatus before moving on
+    private Long maxDurationMs;
+}
@@ -0,0 +1,42 @@
+package com.university.fyp.dto;
+
+import com.university.fyp.entity.Document;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+
+    @NotNull(message = "Group ID is required")
+    private Long groupId;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    @NotNull(message = "Document type is required")
+    private Document.DocumentType type;
+
+    private String changeDescription;
+
+    private Long deadlineId;
+
+    // Optional - name and media type of the file being uploaded
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    private Long totalSize;
+
+    // Optional - hex SHA-256 of the whole file, verified on commit
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "sha256 must be 64 hex characters")
+    private String sha256;
+}
@@ -0,0 +1,32 @@
+package com.university.fyp.dto;
+
+import com.university.fyp.entity.UploadSession;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private String sessionId;
+    private Long totalSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+    private List<Integer> receivedChunks; // Client resends only the missing ones
+    private Instant expiresAt;
+
+    public static UploadSessionResponse fromSession(UploadSession session, List<Integer> receivedChunks) {
+        return new UploadSessionResponse(
+                session.getId(),
+                session.getTotalSize(),
+                session.getChunkSize(),
+                session.getTotalChunks(),
+                receivedChunks,
+                session.getExpiresAt());
+    }
+}
@@ -0,0 +1,43 @@
+package com.university.fyp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserImportResult {
+    private int total;
+    private int created;
+    private int skipped;
+    private int failed;
+    private List<RowResult> rows = new ArrayList<>();
+
+    public enum RowStatus {
+        CREATED,
+        SKIPPED, // e.g. email already registered
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row;
+        private String email;
+        private RowStatus status;
+        private String message;
+    }
+
+    public void add(RowResult result) {
+        rows.add(result);
+        total++;
+        switch (result.getStatus()) {
+            case CREATED -> created++;
+            case SKIPPED -> skipped++;
+            case FAILED -> failed++;
+        }
+    }
+}
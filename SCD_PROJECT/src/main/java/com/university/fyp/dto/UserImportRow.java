@@ -0,0 +1,15 @@
+package com.university.fyp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRow {
+    private String email;
+    private String fullName;
+    private String password;
+    private String role; // Optional - defaults to STUDENT
+}
@@ -5,6 +5,7 @@ import com.university.fyp.dto.GroupResponse;
 import com.university.fyp.dto.DocumentDTO;
 import com.university.fyp.dto.UserDTO;
 import com.university.fyp.dto.DeadlineDTO;
+import com.university.fyp.dto.TransitionStatsDTO;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -32,4 +33,7 @@ public class FypCommitteeDashboard {
     private List<UserDTO> students;
     private List<UserDTO> supervisors;
     private List<UserDTO> committeeMembers;
+
+    // Workflow transitions over the recent window, from the transition log
+    private List<TransitionStatsDTO> workflowStats;
 }
@@ -0,0 +1,65 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One status change of one document, appended by the workflow log and never
+ * updated. Rows carry plain ids rather than relationships so they stay small
+ * and can be written with batched JDBC inserts.
+ */
+@Entity
+@Table(name = "document_transitions", indexes = {
+        @Index(name = "idx_document_transitions_occurred", columnList = "occurred_at"),
+        @Index(name = "idx_document_transitions_document", columnList = "document_id, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false, length = 20)
+    private Document.DocumentStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private Document.DocumentStatus toStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Operation operation;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    // Time the document spent in fromStatus
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * The entry point a transition was made through.
+     */
+    public enum Operation {
+        UPLOAD,
+        SUBMIT,
+        SET_STATUS,
+        REVIEW,
+        ADD_REVIEW,
+        GRADE
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "fyp_groups")
+@Table(name = "fyp_groups", indexes = @Index(name = "idx_groups_created", columnList = "createdAt, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -10,7 +10,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        indexes = @Index(name = "idx_notifications_user_created", columnList = "user_id, createdAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,83 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * One post-upload processing stage for one document version. Rows are created
+ * in the upload transaction, so a stage is never lost if the node stops
+ * before it runs; workers claim PENDING rows and retry them with backoff.
+ */
+@Entity
+@Table(name = "processing_jobs",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "document_id", "version_number", "stage" }),
+        indexes = @Index(name = "idx_processing_jobs_status_next", columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class ProcessingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Stage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    // Short stage output, e.g. the page count
+    @Column(length = 500)
+    private String result;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public enum Stage {
+        INTEGRITY_CHECK,
+        PAGE_COUNT,
+        TEXT_EXTRACTION,
+        THUMBNAIL
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        SKIPPED,
+        FAILED
+    }
+}
@@ -10,7 +10,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews",
+        indexes = @Index(name = "idx_reviews_reviewer_reviewed", columnList = "reviewer_id, reviewedAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
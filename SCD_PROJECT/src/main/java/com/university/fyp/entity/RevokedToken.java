@@ -0,0 +1,38 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class RevokedToken {
+
+    // JWT id (jti) of the revoked token
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    @Column(nullable = false, length = 100)
+    private String subject;
+
+    // Once the token has expired it is rejected anyway and the row can be pruned
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private Instant revokedAt;
+}
@@ -0,0 +1,52 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A file in the content-addressed blob store. Each distinct content is stored
+ * once; refCount tracks how many documents and version history rows point at it.
+ * Content only referenced by older versions may be kept compressed.
+ */
+@Entity
+@Table(name = "stored_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+    // Hex-encoded SHA-256 of the content
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 500)
+    private String storagePath;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private Integer refCount = 0;
+
+    // Uploads of this content on any node that have stored it but not yet
+    // finished; the collector leaves the blob alone while one is recent
+    @Column(nullable = false)
+    private Integer pendingUploads = 0;
+
+    // Latest start of such an upload
+    private Instant claimedAt;
+
+    // Set once the compactor has looked at the blob, whether or not it was
+    // worth compressing; storedSizeBytes is then the size actually kept
+    private Instant compactedAt;
+
+    private Long storedSizeBytes;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,28 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Records that a chunk of an upload session has been fully written.
+ */
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = @UniqueConstraint(
+        name = "uk_upload_chunks_session_index", columnNames = { "session_id", "chunk_index" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false, length = 36)
+    private String sessionId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private Integer chunkIndex;
+}
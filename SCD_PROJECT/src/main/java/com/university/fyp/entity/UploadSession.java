@@ -0,0 +1,72 @@
+package com.university.fyp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * A resumable chunked upload. Chunks are written at their offset into a file
+ * pre-sized to totalSize; committing hands the file to document upload.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = @Index(name = "idx_upload_sessions_expires_at", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private Document.DocumentType type;
+
+    @Column(length = 500)
+    private String changeDescription;
+
+    private Long deadlineId;
+
+    @Column(length = 255)
+    private String originalFilename;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    // Optional hex SHA-256 supplied by the client, checked on commit
+    @Column(length = 64)
+    private String expectedHash;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public int getTotalChunks() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+}
@@ -13,12 +13,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_tokens_valid_after", columnList = "tokensValidAfter"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({ AuditingEntityListener.class, UserEntityListener.class })
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(exclude = { "group", "uploadedDocuments", "reviews", "grades", "notifications" })
@@ -56,6 +56,12 @@ public class User {
     @LastModifiedDate
     private Instant updatedAt;
 
+    // Last change that may affect authorization; claims in older tokens are not trusted
+    private Instant authzChangedAt;
+
+    // Every token issued at or before this is revoked; set when the user is deactivated
+    private Instant tokensValidAfter;
+
     // Relationships
     @OneToMany(mappedBy = "uploadedBy", cascade = CascadeType.ALL)
     @JsonIgnore
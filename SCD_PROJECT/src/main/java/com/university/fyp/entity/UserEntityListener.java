@@ -0,0 +1,34 @@
+package com.university.fyp.entity;
+
+import com.university.fyp.security.PrincipalCache;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+public class UserEntityListener {
+
+    private final PrincipalCache principalCache;
+
+    public UserEntityListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PreUpdate
+    public void markClaimsStale(User user) {
+        Instant now = Instant.now();
+        // Persisted so every node, not only this one, stops trusting older tokens' claims
+        user.setAuthzChangedAt(now);
+        // An inactive user's tokens are revoked outright; they cannot log in for new ones
+        if (Boolean.FALSE.equals(user.getIsActive())) {
+            user.setTokensValidAfter(now);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidateCachedPrincipal(User user) {
+        // Deactivation, role and group changes all go through an update of the
+        // users row, so the cached principal must be reloaded on next request
+        principalCache.invalidateAfterCommit(user.getEmail());
+    }
+}
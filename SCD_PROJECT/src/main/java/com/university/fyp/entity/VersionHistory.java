@@ -10,7 +10,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "version_history")
+@Table(name = "version_history", indexes = @Index(name = "idx_version_history_content_hash", columnList = "contentHash"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +31,17 @@ public class VersionHistory {
     @Column(nullable = false, length = 500)
     private String filePath;
 
+    // SHA-256 of the stored content; null for files uploaded before blob storage
+    @Column(length = 64)
+    private String contentHash;
+
+    // As uploaded; null for files uploaded before these were recorded
+    @Column(length = 255)
+    private String originalFilename;
+
+    @Column(length = 100)
+    private String contentType;
+
     @Column(length = 500)
     private String changeDescription;
 
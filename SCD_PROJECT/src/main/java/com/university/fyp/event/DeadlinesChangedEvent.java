@@ -0,0 +1,9 @@
+package com.university.fyp.event;
+
+/**
+ * Published by {@link com.university.fyp.service.DeadlineService} when a
+ * deadline is created or deleted, so the in-memory deadline snapshot is
+ * rebuilt once the change has committed.
+ */
+public record DeadlinesChangedEvent(Long deadlineId) {
+}
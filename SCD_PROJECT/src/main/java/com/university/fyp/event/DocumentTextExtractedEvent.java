@@ -0,0 +1,8 @@
+package com.university.fyp.event;
+
+/**
+ * Published by the processing pipeline once plain text has been extracted
+ * from a document version's content.
+ */
+public record DocumentTextExtractedEvent(Long documentId, String contentHash) {
+}
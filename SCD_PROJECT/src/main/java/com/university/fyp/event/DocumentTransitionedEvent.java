@@ -0,0 +1,16 @@
+package com.university.fyp.event;
+
+import com.university.fyp.entity.Document;
+import com.university.fyp.entity.DocumentTransition;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link com.university.fyp.service.DocumentWorkflow} when a
+ * document changes status. The transition log only records it once the
+ * publishing transaction has committed.
+ */
+public record DocumentTransitionedEvent(Long documentId, Document.DocumentStatus fromStatus,
+        Document.DocumentStatus toStatus, DocumentTransition.Operation operation, Long actorId, Long durationMs,
+        Instant occurredAt) {
+}
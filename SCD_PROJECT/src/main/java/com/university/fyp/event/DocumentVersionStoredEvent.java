@@ -0,0 +1,9 @@
+package com.university.fyp.event;
+
+/**
+ * Published by {@link com.university.fyp.service.DocumentService} when an
+ * upload has stored new content for a document version. Listeners that act on
+ * it should run after the publishing transaction commits.
+ */
+public record DocumentVersionStoredEvent(Long documentId, Integer versionNumber, String contentHash) {
+}
@@ -0,0 +1,7 @@
+package com.university.fyp.event;
+
+/**
+ * Published when a group and, by cascade, its documents are deleted.
+ */
+public record GroupDeletedEvent(Long groupId) {
+}
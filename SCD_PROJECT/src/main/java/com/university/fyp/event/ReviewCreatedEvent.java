@@ -0,0 +1,7 @@
+package com.university.fyp.event;
+
+/**
+ * Published when a review is recorded for a document.
+ */
+public record ReviewCreatedEvent(Long reviewId) {
+}
@@ -1,6 +1,7 @@
 package com.university.fyp.exception;
 
 import com.university.fyp.dto.MessageResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -39,6 +40,31 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse("Error: Invalid username or password."));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<MessageResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new MessageResponse("Error: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<MessageResponse> handlePayloadTooLargeException(PayloadTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new MessageResponse("Error: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(StatusConflictException.class)
+    public ResponseEntity<MessageResponse> handleStatusConflictException(StatusConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("Error: " + ex.getMessage(), false));
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<MessageResponse> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + ex.getMessage(), false));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<MessageResponse> handleRuntimeException(RuntimeException ex) {
         return ResponseEntity.badRequest()
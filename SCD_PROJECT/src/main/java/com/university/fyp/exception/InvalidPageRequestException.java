@@ -0,0 +1,12 @@
+package com.university.fyp.exception;
+
+/**
+ * Thrown when a list is requested with a cursor that was not issued by the
+ * server, or with a limit that is not positive; mapped to HTTP 400.
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.university.fyp.exception;
+
+/**
+ * Thrown when an upload exceeds the configured size limit; mapped to HTTP 413.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.university.fyp.exception;
+
+/**
+ * Thrown when a document's status changed between reading and updating it,
+ * e.g. because another reviewer acted first; mapped to HTTP 409.
+ */
+public class StatusConflictException extends RuntimeException {
+
+    public StatusConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.university.fyp.exception;
+
+/**
+ * Thrown when a request is rejected by admission control; mapped to HTTP 429.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
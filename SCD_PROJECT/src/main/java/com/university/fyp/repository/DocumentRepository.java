@@ -1,16 +1,28 @@
 package com.university.fyp.repository;
 
+import com.university.fyp.dto.DocumentDTO;
 import com.university.fyp.entity.Document;
+import com.university.fyp.exception.StatusConflictException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
+    // Flat DocumentDTO rows, joins included, so a list is one SQL statement
+    // however long it is. Arguments follow the DocumentDTO field order.
+    String DTO_SELECT = "SELECT new com.university.fyp.dto.DocumentDTO(d.id, g.id, g.groupName, g.projectTitle, "
+            + "s.fullName, d.title, d.type, d.version, d.filePath, d.status, u.id, u.fullName, u.email, "
+            + "dl.id, dl.title, dl.dueDate, d.submittedAt, d.isLate, d.createdAt) "
+            + "FROM Document d JOIN d.group g LEFT JOIN g.supervisor s JOIN d.uploadedBy u LEFT JOIN d.deadline dl ";
+
     List<Document> findByGroupId(Long groupId);
 
     List<Document> findByStatus(Document.DocumentStatus status);
@@ -28,9 +40,105 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByStatusAndSupervisorId(@Param("status") Document.DocumentStatus status,
             @Param("supervisorId") Long supervisorId);
 
+    @Query(DTO_SELECT + "WHERE g.id = :groupId")
+    List<DocumentDTO> findDTOsByGroupId(@Param("groupId") Long groupId);
+
+    @Query(DTO_SELECT + "WHERE s.id = :supervisorId")
+    List<DocumentDTO> findDTOsBySupervisorId(@Param("supervisorId") Long supervisorId);
+
+    @Query(DTO_SELECT + "WHERE d.status = :status")
+    List<DocumentDTO> findDTOsByStatus(@Param("status") Document.DocumentStatus status);
+
+    @Query(DTO_SELECT)
+    List<DocumentDTO> findAllDTOs();
+
+    // Keyset pages, newest first
+    @Query(DTO_SELECT + "WHERE d.status = :status "
+            + "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) "
+            + "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentDTO> findPageByStatus(@Param("status") Document.DocumentStatus status,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE s.id = :supervisorId "
+            + "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) "
+            + "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentDTO> findPageBySupervisorId(@Param("supervisorId") Long supervisorId,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Documents in the status that have no grade yet, oldest submission
+     * first, as an anti-join on grades. Documents moved to a gradable status
+     * without being submitted sort by upload time. One status per query, so
+     * the (status, submittedOrCreatedAt, id) index serves order and limit.
+     */
+    @Query(DTO_SELECT + "WHERE d.status = :status "
+            + "AND NOT EXISTS (SELECT gr.id FROM Grade gr WHERE gr.document = d) "
+            + "AND (d.submittedOrCreatedAt > :submittedAt "
+            + "OR (d.submittedOrCreatedAt = :submittedAt AND d.id > :id)) "
+            + "ORDER BY d.submittedOrCreatedAt, d.id")
+    List<DocumentDTO> findUngradedPage(@Param("status") Document.DocumentStatus status,
+            @Param("submittedAt") Instant submittedAt, @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.submittedOrCreatedAt = COALESCE(d.submittedAt, d.createdAt) "
+            + "WHERE d.submittedOrCreatedAt IS NULL")
+    int backfillSubmittedOrCreatedAt();
+
+    /**
+     * Changes the status only if it still has the expected value, so of two
+     * concurrent transitions exactly one wins. Returns the rows matched.
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.status = :newStatus WHERE d.id = :id AND d.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") Document.DocumentStatus expected,
+            @Param("newStatus") Document.DocumentStatus newStatus);
+
+    /**
+     * Moves a loaded document from the status it was read with to a new one,
+     * failing with {@link StatusConflictException} if someone else changed
+     * it in the meantime. Must run inside a transaction.
+     */
+    default void transition(Document document, Document.DocumentStatus newStatus) {
+        if (compareAndSetStatus(document.getId(), document.getStatus(), newStatus) == 0) {
+            throw new StatusConflictException("Document status was changed by someone else (it was "
+                    + document.getStatus() + "). Reload the document and try again.");
+        }
+        // The update holds the row lock until commit, so writing the entity back is safe
+        document.setStatus(newStatus);
+    }
+
     @Query("SELECT COUNT(d) FROM Document d WHERE d.group.id = :groupId AND d.status = :status")
     Long countByGroupIdAndStatus(@Param("groupId") Long groupId, @Param("status") Document.DocumentStatus status);
 
     @Query("SELECT COUNT(d) FROM Document d WHERE d.status = :status")
     Long countByStatus(@Param("status") Document.DocumentStatus status);
+
+    boolean existsByContentHash(String contentHash);
+
+    @Query("SELECT DISTINCT d.contentHash FROM Document d WHERE d.contentHash IS NOT NULL")
+    List<String> findAllContentHashes();
+
+    /**
+     * Groups with documents matching the export filter, in id order after the
+     * cursor. A null type or deadline matches everything.
+     */
+    @Query("SELECT DISTINCT d.group.id FROM Document d WHERE d.group.id > :afterGroupId "
+            + "AND (:type IS NULL OR d.type = :type) AND (:deadlineId IS NULL OR d.deadline.id = :deadlineId) "
+            + "ORDER BY d.group.id")
+    List<Long> findExportGroupIds(@Param("type") Document.DocumentType type, @Param("deadlineId") Long deadlineId,
+            @Param("afterGroupId") Long afterGroupId, Pageable pageable);
+
+    @Query("SELECT d FROM Document d JOIN FETCH d.group WHERE d.group.id IN :groupIds "
+            + "AND (:type IS NULL OR d.type = :type) AND (:deadlineId IS NULL OR d.deadline.id = :deadlineId) "
+            + "ORDER BY d.group.id, d.id")
+    List<Document> findExportDocuments(@Param("groupIds") List<Long> groupIds,
+            @Param("type") Document.DocumentType type, @Param("deadlineId") Long deadlineId);
+
+    // Search index rebuild, in id order after the cursor
+    @Query("SELECT d FROM Document d JOIN FETCH d.group WHERE d.id > :afterId ORDER BY d.id")
+    List<Document> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Files uploaded before blob storage are referenced by path only
+    @Query("SELECT d.filePath FROM Document d WHERE d.contentHash IS NULL")
+    List<String> findLegacyFilePaths();
 }
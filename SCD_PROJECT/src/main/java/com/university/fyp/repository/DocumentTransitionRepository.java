@@ -0,0 +1,21 @@
+package com.university.fyp.repository;
+
+import com.university.fyp.dto.TransitionStatsDTO;
+import com.university.fyp.entity.DocumentTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DocumentTransitionRepository extends JpaRepository<DocumentTransition, Long> {
+
+    @Query("SELECT new com.university.fyp.dto.TransitionStatsDTO(t.fromStatus, t.toStatus, COUNT(t), "
+            + "AVG(t.durationMs), MAX(t.durationMs)) "
+            + "FROM DocumentTransition t WHERE t.occurredAt >= :since "
+            + "GROUP BY t.fromStatus, t.toStatus ORDER BY t.fromStatus, t.toStatus")
+    List<TransitionStatsDTO> findStatsSince(@Param("since") Instant since);
+}
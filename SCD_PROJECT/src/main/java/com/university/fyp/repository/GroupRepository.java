@@ -1,10 +1,15 @@
 package com.university.fyp.repository;
 
 import com.university.fyp.entity.Group;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +22,25 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
 
     boolean existsByGroupName(String groupName);
 
+    @Query("SELECT g.id FROM Group g WHERE g.supervisor.id = :supervisorId")
+    List<Long> findIdsBySupervisorId(@Param("supervisorId") Long supervisorId);
+
+    // Keyset pages, newest first. Ids only: paging a query that fetches the
+    // members collection would make Hibernate page in memory
+    @Query("SELECT g.id FROM Group g "
+            + "WHERE g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id) "
+            + "ORDER BY g.createdAt DESC, g.id DESC")
+    List<Long> findPageIds(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT g.id FROM Group g WHERE g.supervisor.id = :supervisorId "
+            + "AND (g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id)) "
+            + "ORDER BY g.createdAt DESC, g.id DESC")
+    List<Long> findPageIdsBySupervisorId(@Param("supervisorId") Long supervisorId,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"supervisor", "members"})
+    List<Group> findByIdIn(Collection<Long> ids);
+
     // Fetch group with supervisor and members loaded
     @EntityGraph(attributePaths = {"supervisor", "members"})
     Optional<Group> findById(Long id);
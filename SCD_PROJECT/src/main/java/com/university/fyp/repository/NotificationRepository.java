@@ -1,9 +1,13 @@
 package com.university.fyp.repository;
 
 import com.university.fyp.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -15,6 +19,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    // Keyset pages, newest first
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByUserId(@Param("userId") Long userId,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
     List<Notification> findByType(Notification.NotificationType type);
 
     Long countByUserIdAndIsRead(Long userId, Boolean isRead);
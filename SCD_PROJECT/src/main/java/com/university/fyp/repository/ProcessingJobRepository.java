@@ -0,0 +1,58 @@
+package com.university.fyp.repository;
+
+import com.university.fyp.entity.ProcessingJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, Long> {
+
+    List<ProcessingJob> findByDocumentIdAndVersionNumberOrderByStage(Long documentId, Integer versionNumber);
+
+    @Modifying
+    @Query("DELETE FROM ProcessingJob j WHERE j.documentId = :documentId AND j.versionNumber = :versionNumber")
+    int deleteByDocumentIdAndVersionNumber(@Param("documentId") Long documentId,
+            @Param("versionNumber") Integer versionNumber);
+
+    @Query("SELECT j.id FROM ProcessingJob j WHERE j.status = 'PENDING' AND j.nextAttemptAt <= :now "
+            + "ORDER BY j.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+    // Only one worker wins a job, however many times it was dispatched
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = 'RUNNING', j.startedAt = :now, j.attempts = j.attempts + 1 "
+            + "WHERE j.id = :id AND j.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :status, j.result = :result, j.lastError = null, "
+            + "j.finishedAt = :now WHERE j.id = :id AND j.status = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("status") ProcessingJob.Status status,
+            @Param("result") String result, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :status, j.lastError = :error, j.nextAttemptAt = :nextAttemptAt, "
+            + "j.finishedAt = :now WHERE j.id = :id AND j.status = 'RUNNING'")
+    int fail(@Param("id") Long id, @Param("status") ProcessingJob.Status status, @Param("error") String error,
+            @Param("nextAttemptAt") Instant nextAttemptAt, @Param("now") Instant now);
+
+    // Jobs left RUNNING by a worker that died; they are retried like any failure
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = 'PENDING', j.nextAttemptAt = :now "
+            + "WHERE j.status = 'RUNNING' AND j.startedAt < :startedBefore")
+    int requeueStale(@Param("startedBefore") Instant startedBefore, @Param("now") Instant now);
+
+    long countByStatus(ProcessingJob.Status status);
+}
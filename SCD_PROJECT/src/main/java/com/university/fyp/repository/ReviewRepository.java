@@ -1,9 +1,13 @@
 package com.university.fyp.repository;
 
 import com.university.fyp.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -13,7 +17,18 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByReviewerId(Long reviewerId);
 
+    // Keyset pages, newest first
+    @Query("SELECT r FROM Review r WHERE r.reviewer.id = :reviewerId "
+            + "AND (r.reviewedAt < :reviewedAt OR (r.reviewedAt = :reviewedAt AND r.id < :id)) "
+            + "ORDER BY r.reviewedAt DESC, r.id DESC")
+    List<Review> findPageByReviewerId(@Param("reviewerId") Long reviewerId,
+            @Param("reviewedAt") Instant reviewedAt, @Param("id") Long id, Pageable pageable);
+
     List<Review> findByStatus(Review.ReviewStatus status);
 
+    // Search index rebuild, in id order after the cursor
+    @Query("SELECT r FROM Review r JOIN FETCH r.document d JOIN FETCH d.group WHERE r.id > :afterId ORDER BY r.id")
+    List<Review> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+
     List<Review> findByDocumentIdAndReviewerId(Long documentId, Long reviewerId);
 }
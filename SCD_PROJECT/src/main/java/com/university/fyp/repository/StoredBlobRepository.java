@@ -0,0 +1,83 @@
+package com.university.fyp.repository;
+
+import com.university.fyp.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Single round trip that is safe against concurrent uploads of the same content
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (content_hash, storage_path, size_bytes, ref_count, pending_uploads, "
+            + "created_at) VALUES (:contentHash, :storagePath, :sizeBytes, 1, 0, :now) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int acquire(@Param("contentHash") String contentHash, @Param("storagePath") String storagePath,
+            @Param("sizeBytes") long sizeBytes, @Param("now") Instant now);
+
+    /**
+     * Registers an upload about to store the content, creating the row if
+     * needed. Waits while a deletion of the content holds the row.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (content_hash, storage_path, size_bytes, ref_count, pending_uploads, "
+            + "claimed_at, created_at) VALUES (:contentHash, :storagePath, :sizeBytes, 0, 1, :now, :now) "
+            + "ON DUPLICATE KEY UPDATE pending_uploads = pending_uploads + 1, "
+            + "claimed_at = GREATEST(COALESCE(claimed_at, :now), :now)", nativeQuery = true)
+    int claim(@Param("contentHash") String contentHash, @Param("storagePath") String storagePath,
+            @Param("sizeBytes") long sizeBytes, @Param("now") Instant now);
+
+    // Gives the collector a row to lock for content found only in storage
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stored_blobs (content_hash, storage_path, size_bytes, ref_count, "
+            + "pending_uploads, created_at) VALUES (:contentHash, :storagePath, 0, 0, 0, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("contentHash") String contentHash, @Param("storagePath") String storagePath,
+            @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.contentHash = :contentHash")
+    Optional<StoredBlob> lockByContentHash(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.pendingUploads = b.pendingUploads - 1 "
+            + "WHERE b.contentHash = :contentHash AND b.pendingUploads > 0")
+    int unclaim(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :contentHash")
+    int retain(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 "
+            + "WHERE b.contentHash = :contentHash AND b.refCount > 0")
+    int release(@Param("contentHash") String contentHash);
+
+    // Content that only older versions still reference
+    @Query("SELECT b FROM StoredBlob b WHERE b.compactedAt IS NULL AND b.refCount > 0 "
+            + "AND b.createdAt < :createdBefore AND b.sizeBytes >= :minSize "
+            + "AND NOT EXISTS (SELECT d.id FROM Document d WHERE d.contentHash = b.contentHash)")
+    List<StoredBlob> findCompactionCandidates(@Param("createdBefore") Instant createdBefore,
+            @Param("minSize") long minSize, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.compactedAt = :now, b.storedSizeBytes = :storedSize "
+            + "WHERE b.contentHash = :contentHash")
+    int markCompacted(@Param("contentHash") String contentHash, @Param("storedSize") long storedSize,
+            @Param("now") Instant now);
+
+    @Query("SELECT b.contentHash FROM StoredBlob b")
+    List<String> findAllContentHashes();
+}
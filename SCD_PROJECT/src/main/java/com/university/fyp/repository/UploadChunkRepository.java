@@ -0,0 +1,25 @@
+package com.university.fyp.repository;
+
+import com.university.fyp.entity.UploadChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+
+    @Query("SELECT c.chunkIndex FROM UploadChunk c WHERE c.sessionId = :sessionId ORDER BY c.chunkIndex")
+    List<Integer> findChunkIndexes(@Param("sessionId") String sessionId);
+
+    long countBySessionId(String sessionId);
+
+    boolean existsBySessionIdAndChunkIndex(String sessionId, Integer chunkIndex);
+
+    @Modifying
+    @Query("DELETE FROM UploadChunk c WHERE c.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+}
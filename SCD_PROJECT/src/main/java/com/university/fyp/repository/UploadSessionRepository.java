@@ -0,0 +1,14 @@
+package com.university.fyp.repository;
+
+import com.university.fyp.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    List<UploadSession> findByExpiresAtBefore(Instant now);
+}
@@ -1,9 +1,16 @@
 package com.university.fyp.repository;
 
 import com.university.fyp.entity.User;
+import com.university.fyp.security.TokenCutoff;
+import com.university.fyp.security.UserAuthState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +21,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT new com.university.fyp.security.UserAuthState(u.isActive, u.authzChangedAt) "
+            + "FROM User u WHERE u.email = :email")
+    Optional<UserAuthState> findAuthStateByEmail(@Param("email") String email);
+
+    @Query("SELECT new com.university.fyp.security.TokenCutoff(u.email, u.tokensValidAfter) "
+            + "FROM User u WHERE u.tokensValidAfter > :since")
+    List<TokenCutoff> findTokenCutoffsSince(@Param("since") Instant since);
+
+    // For changes that do not touch the users row, e.g. becoming a group's supervisor
+    @Modifying
+    @Query("UPDATE User u SET u.authzChangedAt = :now WHERE u.id = :id")
+    int markAuthzChanged(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     List<User> findByRoleName(String roleName);
 
+    @Query("SELECT u.id FROM User u WHERE u.role.name = :roleName")
+    List<Long> findIdsByRoleName(@Param("roleName") String roleName);
+
     List<User> findByGroupId(Long groupId);
 
+    @Query("SELECT u.id FROM User u WHERE u.group.id = :groupId")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId);
+
     List<User> findByIsActive(Boolean isActive);
 
     List<User> findByRoleNameAndGroupIsNull(String roleName);
@@ -2,6 +2,7 @@ package com.university.fyp.repository;
 
 import com.university.fyp.entity.VersionHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +15,14 @@ public interface VersionHistoryRepository extends JpaRepository<VersionHistory,
     List<VersionHistory> findByDocumentIdOrderByVersionNumberDesc(Long documentId);
 
     List<VersionHistory> findByUploadedById(Long uploadedById);
+
+    List<VersionHistory> findByDocumentIdAndVersionNumber(Long documentId, Integer versionNumber);
+
+    boolean existsByContentHash(String contentHash);
+
+    @Query("SELECT DISTINCT v.contentHash FROM VersionHistory v WHERE v.contentHash IS NOT NULL")
+    List<String> findAllContentHashes();
+
+    @Query("SELECT v.filePath FROM VersionHistory v WHERE v.contentHash IS NULL")
+    List<String> findLegacyFilePaths();
 }
@@ -0,0 +1,84 @@
+package com.university.fyp.security;
+
+import com.university.fyp.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Resolved view of the logged-in user: everything the services need for
+ * authorization (id, role, group, supervised groups) without going back to the
+ * database.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String roleName;
+    private final Long groupId;
+    private final Set<Long> supervisedGroupIds;
+    private final boolean active;
+
+    public AuthenticatedUser(Long id, String email, String password, String roleName, Long groupId,
+            Set<Long> supervisedGroupIds, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.roleName = roleName;
+        this.groupId = groupId;
+        this.supervisedGroupIds = supervisedGroupIds != null ? Set.copyOf(supervisedGroupIds) : Set.of();
+        this.active = active;
+    }
+
+    public static AuthenticatedUser fromUser(User user, Set<Long> supervisedGroupIds) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getRole().getName(),
+                user.getGroup() != null ? user.getGroup().getId() : null,
+                supervisedGroupIds,
+                Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public boolean hasRole(String roleName) {
+        return this.roleName.equals(roleName);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + roleName));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,95 @@
+package com.university.fyp.security;
+
+import com.university.fyp.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+
+/**
+ * Runs password verification on a dedicated, size-limited pool so a login
+ * storm saturates at most that pool instead of every Tomcat worker. When the
+ * queue is full new logins are rejected immediately with a 429. Callers get
+ * a future, so request threads are not held while a login waits its turn.
+ */
+@Component
+public class AuthenticationExecutor {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public AuthenticationExecutor(AuthenticationManager authenticationManager,
+            MeterRegistry meterRegistry,
+            @Value("${security.login.threads:4}") int threads,
+            @Value("${security.login.queue-capacity:100}") int queueCapacity,
+            @Value("${security.login.timeout-ms:10000}") long timeoutMillis) {
+        this.authenticationManager = authenticationManager;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("fyp.login.wait")
+                .description("Time a login spends queued before password verification starts")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("fyp.login.hash")
+                .description("Time spent verifying the password")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fyp.login.rejected")
+                .register(meterRegistry);
+        Gauge.builder("fyp.login.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Verifies the credentials on the login pool. The returned future fails
+     * with a {@link TooManyRequestsException} when the pool is saturated or
+     * the login is not done within the timeout, so the caller never blocks.
+     */
+    public CompletableFuture<Authentication> authenticate(Authentication request) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Authentication> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(hashTimer.recordCallable(() -> authenticationManager.authenticate(request)));
+                } catch (Exception e) {
+                    // BadCredentialsException, DisabledException etc. reach the caller unchanged
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new TooManyRequestsException("Login service is busy, please retry shortly", 1));
+        }
+
+        return result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                        rejected.increment();
+                        error = new TooManyRequestsException("Login service is busy, please retry shortly", 1);
+                    }
+                    return CompletableFuture.failedFuture(error);
+                });
+    }
+}
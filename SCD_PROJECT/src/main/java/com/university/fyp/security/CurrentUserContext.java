@@ -0,0 +1,23 @@
+package com.university.fyp.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Holds the user resolved by {@link JwtAuthenticationFilter} for the duration of
+ * a single request, so services can read it any number of times for free.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    private AuthenticatedUser user;
+
+    public AuthenticatedUser getUser() {
+        return user;
+    }
+
+    public void setUser(AuthenticatedUser user) {
+        this.user = user;
+    }
+}
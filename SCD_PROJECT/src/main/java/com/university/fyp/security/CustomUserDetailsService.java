@@ -1,44 +1,46 @@
 package com.university.fyp.security;
 
 import com.university.fyp.entity.User;
+import com.university.fyp.repository.GroupRepository;
 import com.university.fyp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
 
     @Override
     @Transactional
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    public AuthenticatedUser loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                user.getIsActive(),
-                true,
-                true,
-                true,
-                getAuthorities(user));
+        // Supervised groups are only relevant for supervisors
+        Set<Long> supervisedGroupIds = user.getRole().getName().equals("SUPERVISOR")
+                ? new HashSet<>(groupRepository.findIdsBySupervisorId(user.getId()))
+                : Set.of();
+
+        return AuthenticatedUser.fromUser(user, supervisedGroupIds);
     }
 
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().getName()));
+    /**
+     * Active flag and last authorization change, read with one indexed
+     * single-row query and without loading the role or groups.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserAuthState> loadAuthState(String email) {
+        return userRepository.findAuthStateByEmail(email);
     }
 
     @Transactional
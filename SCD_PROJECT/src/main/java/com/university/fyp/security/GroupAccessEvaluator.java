@@ -0,0 +1,82 @@
+package com.university.fyp.security;
+
+import com.university.fyp.entity.User;
+import com.university.fyp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Single place for group-level authorization. Decisions are made from the
+ * {@link AuthenticatedUser} snapshot (role, own group id, supervised group ids)
+ * and never load the group's supervisor or members.
+ */
+@Component
+@RequiredArgsConstructor
+public class GroupAccessEvaluator {
+
+    private final PrincipalCache principalCache;
+    private final UserRepository userRepository;
+
+    /**
+     * Students may access their own group, supervisors the groups they
+     * supervise, and committee roles every group.
+     */
+    public boolean canAccessGroup(AuthenticatedUser user, Long groupId) {
+        if (groupId == null) {
+            return false;
+        }
+        switch (user.getRoleName()) {
+            case "FYP_COMMITTEE":
+            case "COMMITTEE_MEMBER":
+                return true;
+            case "SUPERVISOR":
+                return user.getSupervisedGroupIds().contains(groupId);
+            case "STUDENT":
+                return groupId.equals(user.getGroupId());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The groups {@link #canAccessGroup} allows, for filtering queries up
+     * front. Null means every group.
+     */
+    public Set<Long> accessibleGroupIds(AuthenticatedUser user) {
+        switch (user.getRoleName()) {
+            case "FYP_COMMITTEE":
+            case "COMMITTEE_MEMBER":
+                return null;
+            case "SUPERVISOR":
+                return user.getSupervisedGroupIds();
+            case "STUDENT":
+                return user.getGroupId() != null ? Set.of(user.getGroupId()) : Set.of();
+            default:
+                return Set.of();
+        }
+    }
+
+    public boolean supervises(AuthenticatedUser user, Long groupId) {
+        return user.hasRole("SUPERVISOR") && groupId != null && user.getSupervisedGroupIds().contains(groupId);
+    }
+
+    public boolean isCommittee(AuthenticatedUser user) {
+        return user.hasRole("COMMITTEE_MEMBER") || user.hasRole("FYP_COMMITTEE");
+    }
+
+    /**
+     * Discards the user's access snapshot once the current transaction commits,
+     * and marks the claims in their existing tokens stale for every node. Must
+     * be called, inside the transaction, whenever their group membership or
+     * supervised groups change.
+     */
+    public void invalidate(User user) {
+        if (user != null) {
+            userRepository.markAuthzChanged(user.getId(), Instant.now());
+            principalCache.invalidateAfterCommit(user.getEmail());
+        }
+    }
+}
@@ -7,7 +7,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,6 +20,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final CurrentUserContext currentUserContext;
+    private final TokenRevocationService revocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,15 +31,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+            JwtClaims claims = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt).orElse(null) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (claims != null && !revocationService.isRevoked(claims)) {
+                AuthenticatedUser principal = principalCache.get(claims.subject(), subject -> resolvePrincipal(claims));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Deactivated users keep a valid token until it expires, so reject them here
+                if (principal.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    currentUserContext.setUser(principal);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -46,6 +53,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the token claims when the users row confirms
+     * the user is still active and nothing affecting authorization changed
+     * since the token was issued; otherwise loads the user in full. The row is
+     * shared by all nodes, so a change made anywhere takes effect here once
+     * the cached principal expires.
+     */
+    private AuthenticatedUser resolvePrincipal(JwtClaims claims) {
+        if (claims.hasUserClaims() && !principalCache.isInvalidatedSince(claims.subject(), claims.issuedAt())) {
+            boolean current = userDetailsService.loadAuthState(claims.subject())
+                    .map(state -> state.claimsCurrent(claims.issuedAt()))
+                    .orElse(false);
+            if (current) {
+                return claims.toPrincipal();
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.subject());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
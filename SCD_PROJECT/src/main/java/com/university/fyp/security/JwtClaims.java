@@ -0,0 +1,33 @@
+package com.university.fyp.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Verified contents of a JWT. {@code userId} and {@code role} are absent on
+ * tokens issued before they were embedded, in which case the principal must
+ * be loaded from the database.
+ */
+public record JwtClaims(
+        String subject,
+        String tokenId,
+        Long userId,
+        String role,
+        Long groupId,
+        Set<Long> supervisedGroupIds,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public boolean hasUserClaims() {
+        return userId != null && role != null;
+    }
+
+    /**
+     * Builds the principal from the token, without a password since it is
+     * never needed after login. Only valid once the users row has confirmed the
+     * user is active and the claims are current (see {@link UserAuthState}).
+     */
+    public AuthenticatedUser toPrincipal() {
+        return new AuthenticatedUser(userId, subject, null, role, groupId, supervisedGroupIds, true);
+    }
+}
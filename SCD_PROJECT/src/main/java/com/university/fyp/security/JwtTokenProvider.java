@@ -2,6 +2,7 @@ package com.university.fyp.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,19 +10,37 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_GROUP_ID = "gid";
+    private static final String CLAIM_SUPERVISED_GROUP_IDS = "sgids";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    // Key derivation and parser construction are done once, not per request
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -29,12 +48,25 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .expiration(expiryDate);
+
+        // Embed what authorization needs so requests can be served without a user lookup
+        if (userDetails instanceof AuthenticatedUser user) {
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLE, user.getRoleName());
+            if (user.getGroupId() != null) {
+                builder.claim(CLAIM_GROUP_ID, user.getGroupId());
+            }
+            if (!user.getSupervisedGroupIds().isEmpty()) {
+                builder.claim(CLAIM_SUPERVISED_GROUP_IDS, user.getSupervisedGroupIds());
+            }
+        }
+
+        return builder.signWith(signingKey).compact();
     }
 
     public String generateTokenFromEmail(String email) {
@@ -42,33 +74,51 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the signature and expiry once and returns the typed claims, or
+     * empty if the token is invalid.
+     */
+    public Optional<JwtClaims> verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
 
-        return claims.getSubject();
+        return Optional.of(new JwtClaims(
+                claims.getSubject(),
+                claims.getId(),
+                toLong(claims.get(CLAIM_USER_ID)),
+                claims.get(CLAIM_ROLE, String.class),
+                toLong(claims.get(CLAIM_GROUP_ID)),
+                toLongSet(claims.get(CLAIM_SUPERVISED_GROUP_IDS)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
     }
 
-    public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // Log the exception if needed
-            return false;
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static Set<Long> toLongSet(Object value) {
+        Set<Long> ids = new HashSet<>();
+        if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                Long id = toLong(item);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
         }
+        return ids;
     }
 }
@@ -0,0 +1,113 @@
+package com.university.fyp.security;
+
+import com.university.fyp.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-IP and per-account token buckets for login attempts, checked before any
+ * password hashing is done. Buckets left idle until they have refilled carry
+ * no state and are dropped by a scheduled sweep. Should the key limit be
+ * reached between sweeps, new keys share one overflow bucket instead.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final int MAX_TRACKED_KEYS = 50_000;
+
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket ipOverflow;
+    private final TokenBucket accountOverflow;
+
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final int accountCapacity;
+    private final int accountRefillPerMinute;
+
+    public LoginRateLimiter(@Value("${security.login.ip-bucket.capacity:2000}") int ipCapacity,
+            @Value("${security.login.ip-bucket.refill-per-minute:1000}") int ipRefillPerMinute,
+            @Value("${security.login.account-bucket.capacity:10}") int accountCapacity,
+            @Value("${security.login.account-bucket.refill-per-minute:10}") int accountRefillPerMinute) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerMinute = accountRefillPerMinute;
+        this.ipOverflow = new TokenBucket(ipCapacity, ipRefillPerMinute);
+        this.accountOverflow = new TokenBucket(accountCapacity, accountRefillPerMinute);
+    }
+
+    public void checkAllowed(String clientIp, String email) {
+        if (!tryConsume(ipBuckets, ipOverflow, clientIp, ipCapacity, ipRefillPerMinute)) {
+            throw new TooManyRequestsException("Too many login attempts from this address",
+                    retryAfterSeconds(ipRefillPerMinute));
+        }
+        if (!tryConsume(accountBuckets, accountOverflow, email.toLowerCase(), accountCapacity,
+                accountRefillPerMinute)) {
+            throw new TooManyRequestsException("Too many login attempts for this account",
+                    retryAfterSeconds(accountRefillPerMinute));
+        }
+    }
+
+    // Time until the next token is available
+    private long retryAfterSeconds(int refillPerMinute) {
+        return (long) Math.ceil(60.0 / Math.max(1, refillPerMinute));
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.bucket-cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        // Full buckets carry no state worth keeping
+        ipBuckets.values().removeIf(TokenBucket::isFull);
+        accountBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    private boolean tryConsume(Map<String, TokenBucket> buckets, TokenBucket overflow, String key, int capacity,
+            int refillPerMinute) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < MAX_TRACKED_KEYS
+                    ? buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute))
+                    : overflow;
+        }
+        return bucket.tryConsume();
+    }
+
+    static class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / 60_000_000_000d;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.university.fyp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by token subject
+ * (the user's email). Lets {@link JwtAuthenticationFilter} skip the users
+ * table lookup for repeat requests from the same user.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    // When each subject was last invalidated, so tokens carrying older claims can
+    // be told apart. Marks only need to outlive the tokens issued before them.
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final long markRetentionMillis;
+    private volatile long allInvalidatedAt = System.currentTimeMillis();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${security.principal-cache.max-size:5000}") int maxSize,
+            @Value("${jwt.expiration}") long markRetentionMillis) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.markRetentionMillis = markRetentionMillis;
+        this.hits = Counter.builder("fyp.principal.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("fyp.principal.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("fyp.principal.cache.evictions")
+                .register(meterRegistry);
+        Gauge.builder("fyp.principal.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached principal for the subject, loading and caching it on a
+     * miss or after its TTL has elapsed.
+     */
+    public AuthenticatedUser get(String subject, Function<String, AuthenticatedUser> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(subject);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+
+        misses.increment();
+        AuthenticatedUser principal = loader.apply(subject);
+        if (entries.size() >= maxSize && !entries.containsKey(subject)) {
+            evict(now);
+        }
+        entries.put(subject, new Entry(principal, now + ttlMillis));
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal so the next request reloads it, e.g. after the
+     * user is deactivated or their role or group changes.
+     */
+    public void invalidate(String subject) {
+        if (subject == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (invalidatedAt.size() >= maxSize) {
+            invalidatedAt.values().removeIf(markedAt -> markedAt < now - markRetentionMillis);
+        }
+        invalidatedAt.put(subject, now);
+        if (entries.remove(subject) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Whether the subject was invalidated after the token was issued, meaning the
+     * claims embedded in it can no longer be trusted. Tokens issued before this
+     * node started are always treated as stale since earlier marks were lost.
+     */
+    public boolean isInvalidatedSince(String subject, Instant issuedAt) {
+        if (issuedAt == null) {
+            return true;
+        }
+        long issued = issuedAt.toEpochMilli();
+        Long markedAt = invalidatedAt.get(subject);
+        return issued < allInvalidatedAt || (markedAt != null && issued < markedAt);
+    }
+
+    /**
+     * Invalidates once the surrounding transaction commits, so a concurrent
+     * request cannot re-cache the pre-commit state. Invalidates immediately when
+     * no transaction is active.
+     */
+    public void invalidateAfterCommit(String subject) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(subject);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(subject);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt = System.currentTimeMillis();
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        // Drop expired entries first; if the cache is still full, drop the entry
+        // closest to expiry
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        if (entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().expiresAt, b.getValue().expiresAt))
+                    .ifPresent(oldest -> invalidate(oldest.getKey()));
+        }
+    }
+
+    private record Entry(AuthenticatedUser principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.university.fyp.security;
+
+import java.time.Instant;
+
+/**
+ * Tokens for {@code subject} issued at or before {@code validAfter} are
+ * revoked, e.g. because the account was deactivated.
+ */
+public record TokenCutoff(String subject, Instant validAfter) {
+}
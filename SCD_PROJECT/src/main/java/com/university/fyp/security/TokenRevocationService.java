@@ -0,0 +1,145 @@
+package com.university.fyp.security;
+
+import com.university.fyp.entity.RevokedToken;
+import com.university.fyp.repository.RevokedTokenRepository;
+import com.university.fyp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation list for JWTs keyed by token id (jti), plus per-user cutoffs
+ * that revoke every token a user was issued before a point in time. Token
+ * lookups go through an in-memory Bloom filter first, so the common case of
+ * a token that was never revoked costs a few hash computations and no
+ * database access; cutoffs are a map lookup by subject.
+ *
+ * <p>
+ * Each node polls for revocations and cutoffs written since its last poll,
+ * so a logout or deactivation on one node reaches the others within
+ * {@code security.revocation.sync-interval-ms}.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Re-read a little behind the last poll so rows committed late, or written
+    // by a node whose clock is slightly behind, are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration tokenLifetime;
+
+    private volatile BloomFilter filter;
+    private final Map<String, Instant> cutoffs = new ConcurrentHashMap<>();
+    private Instant lastSync = Instant.now();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            UserRepository userRepository,
+            @Value("${security.revocation.expected-entries:10000}") int expectedRevocations,
+            @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${jwt.expiration}") long tokenLifetimeMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMillis);
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    @Transactional
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null || claims.expiresAt() == null) {
+            throw new RuntimeException("Token cannot be revoked");
+        }
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(claims.tokenId());
+        revokedToken.setSubject(claims.subject());
+        revokedToken.setExpiresAt(claims.expiresAt());
+        revokedTokenRepository.save(revokedToken);
+
+        filter.put(claims.tokenId());
+    }
+
+    /**
+     * Whether the token was revoked by id, or was issued to a user at or
+     * before their cutoff. Token times are whole seconds, so a token issued
+     * in the same second as the cutoff counts as revoked.
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        Instant cutoff = claims.subject() != null ? cutoffs.get(claims.subject()) : null;
+        if (cutoff != null && (claims.issuedAt() == null || !claims.issuedAt().isAfter(cutoff))) {
+            return true;
+        }
+        return isRevoked(claims.tokenId());
+    }
+
+    private boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        // Possible false positive, confirm with an exact lookup
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadRevokedTokens() {
+        lastSync = Instant.now();
+        rebuildFilter();
+        // Older cutoffs only cover tokens that have expired anyway
+        userRepository.findTokenCutoffsSince(lastSync.minus(tokenLifetime)).forEach(this::applyCutoff);
+    }
+
+    /**
+     * Picks up revocations and cutoffs written by any node since the last
+     * poll. Both queries are served by indexes on the write time.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public synchronized void syncRecent() {
+        Instant now = Instant.now();
+        Instant since = lastSync.minus(SYNC_OVERLAP);
+        BloomFilter current = filter;
+        revokedTokenRepository.findTokenIdsRevokedSince(since, now).forEach(current::put);
+        userRepository.findTokenCutoffsSince(since).forEach(this::applyCutoff);
+        lastSync = now;
+    }
+
+    /**
+     * Prunes revocations whose tokens have expired and rebuilds the filter from
+     * what is left, since entries cannot be removed from a Bloom filter.
+     * Cutoffs older than the token lifetime are dropped the same way.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.prune-interval-ms:300000}")
+    @Transactional
+    public synchronized void pruneExpired() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        rebuildFilter();
+        Instant oldest = now.minus(tokenLifetime);
+        cutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldest));
+    }
+
+    private void applyCutoff(TokenCutoff cutoff) {
+        cutoffs.merge(cutoff.subject(), cutoff.validAfter(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    private void rebuildFilter() {
+        List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(Instant.now());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, tokenIds.size() * 2),
+                falsePositiveRate);
+        tokenIds.forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.university.fyp.security;
+
+import java.time.Instant;
+
+/**
+ * The parts of a users row that decide whether the claims in a token can
+ * still be trusted: the active flag, and when the user's role, group or
+ * supervised groups last changed.
+ */
+public record UserAuthState(Boolean active, Instant authzChangedAt) {
+
+    /**
+     * Whether a token issued at {@code issuedAt} still describes this user.
+     * Token times are whole seconds, so a change in the same second counts as
+     * later and the principal is reloaded.
+     */
+    public boolean claimsCurrent(Instant issuedAt) {
+        return Boolean.TRUE.equals(active)
+                && issuedAt != null
+                && (authzChangedAt == null || issuedAt.isAfter(authzChangedAt));
+    }
+}
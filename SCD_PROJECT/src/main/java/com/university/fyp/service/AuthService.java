@@ -10,9 +10,14 @@ import com.university.fyp.entity.User;
 import com.university.fyp.repository.GroupRepository;
 import com.university.fyp.repository.RoleRepository;
 import com.university.fyp.repository.UserRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.AuthenticationExecutor;
+import com.university.fyp.security.CurrentUserContext;
+import com.university.fyp.security.CustomUserDetailsService;
 import com.university.fyp.security.JwtTokenProvider;
+import com.university.fyp.security.LoginRateLimiter;
+import com.university.fyp.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +25,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -28,29 +35,49 @@ public class AuthService {
     private final RoleRepository roleRepository;
     private final GroupRepository groupRepository;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final AuthenticationExecutor authenticationExecutor;
+    private final LoginRateLimiter loginRateLimiter;
     private final JwtTokenProvider tokenProvider;
-
-    @Transactional
-    public JwtResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+    private final CurrentUserContext currentUserContext;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
+
+    /**
+     * Authenticates a login attempt. Rate limits are checked before any password
+     * hashing, and the hashing itself runs on the bounded login pool; the token
+     * is issued when it completes, without holding the calling thread.
+     */
+    public CompletableFuture<JwtResponse> login(LoginRequest loginRequest, String clientIp) {
+        loginRateLimiter.checkAllowed(clientIp, loginRequest.getEmail());
+
+        return authenticationExecutor.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getEmail(),
-                        loginRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                        loginRequest.getPassword()))
+                .thenApply(authentication -> {
+                    String jwt = tokenProvider.generateToken(authentication);
+
+                    User user = userRepository.findByEmail(loginRequest.getEmail())
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+
+                    return new JwtResponse(
+                            jwt,
+                            user.getId(),
+                            user.getEmail(),
+                            user.getFullName(),
+                            user.getRole().getName(),
+                            user.getGroup() != null ? user.getGroup().getId() : null);
+                });
+    }
 
-        return new JwtResponse(
-                jwt,
-                user.getId(),
-                user.getEmail(),
-                user.getFullName(),
-                user.getRole().getName(),
-                user.getGroup() != null ? user.getGroup().getId() : null);
+    /**
+     * Revokes the given token so it is rejected for the rest of its lifetime.
+     */
+    public void logout(String token) {
+        tokenProvider.verify(token)
+                .ifPresentOrElse(revocationService::revoke, () -> {
+                    throw new RuntimeException("Invalid token");
+                });
     }
 
     @Transactional
@@ -75,6 +102,38 @@ public class AuthService {
         userRepository.save(user);
     }
 
+    /**
+     * Returns the user resolved once per request by the JWT filter. Falls back to
+     * the security context (and a single lookup) when the filter did not run.
+     */
+    public AuthenticatedUser getCurrentPrincipal() {
+        AuthenticatedUser principal = currentUserContext.getUser();
+        if (principal != null) {
+            return principal;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("Current user not found");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            principal = authenticatedUser;
+        } else {
+            principal = userDetailsService.loadUserByUsername(authentication.getName());
+        }
+
+        currentUserContext.setUser(principal);
+        return principal;
+    }
+
+    /**
+     * Returns an uninitialized reference to the current user for use as a foreign
+     * key (uploadedBy, reviewer, gradedBy, ...) without loading the row.
+     */
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentPrincipal().getId());
+    }
+
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -0,0 +1,367 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.StoredBlob;
+import com.university.fyp.exception.PayloadTooLargeException;
+import com.university.fyp.repository.StoredBlobRepository;
+import com.university.fyp.storage.DocumentStorage;
+import com.university.fyp.storage.LocalStoredObject;
+import com.university.fyp.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Content-addressed file store on top of the configured {@link DocumentStorage}
+ * backend. Uploads are hashed (SHA-256) while they are written to a local
+ * staging file and then handed to the backend under their hash; content that
+ * is already stored is not written again. Reference counts live in
+ * {@code stored_blobs}.
+ *
+ * <p>
+ * File work (stage, persist) happens outside any transaction; reference
+ * changes (acquire, retain, release) belong in the transaction that creates or
+ * drops the reference, so the count rolls back with it.
+ *
+ * <p>
+ * Uploads and deletions coordinate through the {@code stored_blobs} row, so
+ * they are safe across nodes: an upload registers itself on the row before
+ * storing the content, and content is only deleted with the row locked after
+ * checking that no upload of it is under way.
+ */
+@Service
+public class BlobStorageService {
+
+    // Key suffix of the deflated copy that replaces rarely read content
+    private static final String COMPRESSED_SUFFIX = ".z";
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final DocumentStorage documentStorage;
+    private final VersionCache versionCache;
+    private final Path stagingDir;
+    private final Duration stagingMaxAge;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BlobStorageService(StoredBlobRepository storedBlobRepository,
+            DocumentStorage documentStorage,
+            VersionCache versionCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${storage.staging-dir:uploads/staging}") String stagingDir,
+            @Value("${storage.staging-max-age-ms:3600000}") long stagingMaxAgeMillis) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.documentStorage = documentStorage;
+        this.versionCache = versionCache;
+        this.stagingDir = Paths.get(stagingDir);
+        this.stagingMaxAge = Duration.ofMillis(stagingMaxAgeMillis);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Directory for files that are still being written. Kept on the same file
+     * system as the local backend so handing a file over is a rename.
+     */
+    public Path stagingDir() {
+        return stagingDir;
+    }
+
+    /**
+     * Fresh path in the staging area for a file written by someone else, e.g. a
+     * multipart part moved out of the container's temp directory.
+     */
+    public Path newStagingFile() throws IOException {
+        Files.createDirectories(stagingDir);
+        return stagingDir.resolve("upload-" + UUID.randomUUID() + ".part").toAbsolutePath();
+    }
+
+    /**
+     * Streams the content into a staging file, hashing it on the way. Fails as
+     * soon as more than maxBytes have been read; the partial file is removed.
+     * The caller owns the staged file until it is passed to {@link #persist}.
+     */
+    public Staged stage(InputStream input, long maxBytes) throws IOException {
+        Path temp = newStagingFile();
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new PayloadTooLargeException(
+                                "File exceeds the maximum size of " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new Staged(temp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Hashes a file that has already been written to the staging area.
+     */
+    public Staged stageFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return new Staged(file, HexFormat.of().formatHex(digest.digest()), Files.size(file));
+    }
+
+    /**
+     * Hands a staged file to the storage backend. Only the upload's claim on
+     * the content is recorded, in its own short transaction, so this must run
+     * outside one; the reference is taken afterwards with {@link #acquire},
+     * and {@link #finish} must always follow.
+     */
+    public Blob persist(Staged staged) throws IOException {
+        String path = documentStorage.describe(staged.contentHash());
+        storedBlobRepository.claim(staged.contentHash(), path, staged.size(), Instant.now());
+        try {
+            boolean created = documentStorage.put(staged.contentHash(), staged.path());
+            return new Blob(staged.contentHash(), path, staged.size(), created);
+        } catch (IOException | RuntimeException e) {
+            deleteIf(staged.contentHash(), this::endUpload);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the first reference on persisted content, inside the transaction
+     * that records it.
+     */
+    public void acquire(Blob blob) {
+        storedBlobRepository.acquire(blob.contentHash(), blob.path(), blob.size(), Instant.now());
+    }
+
+    /**
+     * Ends a {@link #persist}. When the recording transaction failed and this
+     * upload was the one that wrote the object, the object is removed again
+     * unless something references it or another upload of it is under way.
+     */
+    public void finish(Blob blob, boolean committed) throws IOException {
+        deleteIf(blob.contentHash(), stored -> {
+            endUpload(stored);
+            return !committed && blob.created() && stored.getRefCount() == 0 && stored.getPendingUploads() == 0;
+        });
+    }
+
+    /**
+     * Deletes stored content unless an upload claimed it after
+     * {@code claimedBefore} or the check finds it referenced. The check runs
+     * in the transaction that holds the row lock, so it cannot race with an
+     * upload on any node.
+     *
+     * @return whether the content was deleted
+     */
+    public boolean sweep(String contentHash, Instant claimedBefore, BooleanSupplier unreferenced)
+            throws IOException {
+        return deleteIf(contentHash, stored -> (stored.getClaimedAt() == null
+                || stored.getClaimedAt().isBefore(claimedBefore)) && unreferenced.getAsBoolean());
+    }
+
+    private boolean endUpload(StoredBlob stored) {
+        stored.setPendingUploads(Math.max(0, stored.getPendingUploads() - 1));
+        return false;
+    }
+
+    /**
+     * Locks the content's row, creating it for content found only in storage,
+     * and deletes content and row if the decision, which may also update the
+     * row, says so. Uploads claiming the content meanwhile wait for the lock,
+     * then store it again if it was deleted.
+     */
+    private boolean deleteIf(String contentHash, Predicate<StoredBlob> decision) throws IOException {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Optional<StoredBlob> locked = storedBlobRepository.lockByContentHash(contentHash);
+                boolean inserted = false;
+                if (locked.isEmpty()) {
+                    inserted = storedBlobRepository.insertIfAbsent(contentHash, documentStorage.describe(contentHash),
+                            Instant.now()) > 0;
+                    locked = storedBlobRepository.lockByContentHash(contentHash);
+                }
+                StoredBlob stored = locked
+                        .orElseThrow(() -> new IllegalStateException("Stored blob row missing: " + contentHash));
+                if (!decision.test(stored)) {
+                    if (inserted) {
+                        // Leave no placeholder row behind
+                        status.setRollbackOnly();
+                    }
+                    return false;
+                }
+                try {
+                    documentStorage.delete(contentHash);
+                    documentStorage.delete(contentHash + COMPRESSED_SUFFIX);
+                    versionCache.remove(contentHash);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                storedBlobRepository.delete(stored);
+                return true;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replaces stored content with a deflated copy if that saves enough space.
+     * Reads keep working throughout: the plain object is only removed once
+     * the compressed one exists, and either form is found by {@link #find}.
+     *
+     * @param maxRatio largest compressed/original size ratio worth keeping
+     * @return the number of bytes now stored for the content
+     */
+    public long compress(String contentHash, double maxRatio) throws IOException {
+        Optional<StoredObject> plain = documentStorage.find(contentHash);
+        if (plain.isEmpty()) {
+            // Already compressed, e.g. by a run that stopped before recording it
+            try (StoredObject compressed = documentStorage.find(contentHash + COMPRESSED_SUFFIX)
+                    .orElseThrow(() -> new RuntimeException("Stored file not found: " + contentHash))) {
+                return compressed.size();
+            }
+        }
+
+        Path temp = newStagingFile();
+        try (StoredObject object = plain.get()) {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try (InputStream in = object.open(0, object.size());
+                    OutputStream out = new DeflaterOutputStream(Files.newOutputStream(temp), deflater)) {
+                in.transferTo(out);
+            } finally {
+                deflater.end();
+            }
+
+            long compressedSize = Files.size(temp);
+            if (compressedSize > object.size() * maxRatio) {
+                return object.size();
+            }
+            documentStorage.put(contentHash + COMPRESSED_SUFFIX, temp);
+            documentStorage.delete(contentHash);
+            return compressedSize;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The content hash a backend key belongs to, ignoring variant suffixes.
+     */
+    public static String contentHashOf(String key) {
+        int dot = key.indexOf('.');
+        return dot < 0 ? key : key.substring(0, dot);
+    }
+
+    /**
+     * Removes staging files abandoned by crashed or interrupted uploads. Upload
+     * sessions keep their files in a subdirectory and expire on their own.
+     */
+    @Scheduled(fixedDelayString = "${storage.staging-cleanup-interval-ms:3600000}")
+    public void deleteAbandonedStagingFiles() throws IOException {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(stagingMaxAge);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingDir, "upload-*.part")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes an additional reference on already stored content.
+     */
+    public void retain(String contentHash) {
+        if (storedBlobRepository.retain(contentHash) == 0) {
+            throw new RuntimeException("Stored file not found: " + contentHash);
+        }
+    }
+
+    /**
+     * Drops one reference. Unreferenced content stays stored until the
+     * garbage collector sweeps it.
+     */
+    public void release(String contentHash) {
+        if (contentHash != null) {
+            storedBlobRepository.release(contentHash);
+        }
+    }
+
+    /**
+     * Looks up stored content by hash, or by its local path for files uploaded
+     * before blob storage (contentHash null). Compressed content is served
+     * from a decompressed copy in the {@link VersionCache}.
+     */
+    public Optional<StoredObject> find(String contentHash, String legacyFilePath) throws IOException {
+        if (contentHash != null) {
+            Optional<StoredObject> plain = documentStorage.find(contentHash);
+            if (plain.isPresent()) {
+                return plain;
+            }
+            Optional<StoredObject> compressed = documentStorage.find(contentHash + COMPRESSED_SUFFIX);
+            if (compressed.isEmpty()) {
+                return Optional.empty();
+            }
+            try (StoredObject object = compressed.get()) {
+                return Optional.of(versionCache.get(contentHash, object));
+            }
+        }
+        Path path = Paths.get(legacyFilePath);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalStoredObject(path, Files.size(path)));
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Persisted content.
+     *
+     * @param created whether this upload wrote the object, as opposed to finding
+     *                it already stored
+     */
+    public record Blob(String contentHash, String path, long size, boolean created) {
+    }
+
+    public record Staged(Path path, String contentHash, long size) {
+    }
+}
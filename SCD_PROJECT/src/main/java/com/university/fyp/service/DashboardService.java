@@ -4,6 +4,7 @@ import com.university.fyp.dto.dashboard.*;
 import com.university.fyp.dto.*;
 import com.university.fyp.entity.*;
 import com.university.fyp.repository.*;
+import com.university.fyp.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -24,44 +25,41 @@ public class DashboardService {
         private final DocumentRepository documentRepository;
         private final GradeRepository gradeRepository;
         private final GroupRepository groupRepository;
-        private final DeadlineRepository deadlineRepository;
+        private final DeadlineCache deadlineCache;
         private final NotificationRepository notificationRepository;
         private final UserRepository userRepository;
         private final AuthService authService;
+        private final DocumentTransitionLog documentTransitionLog;
 
         public StudentDashboard getStudentDashboard() {
-                User currentUser = authService.getCurrentUser();
+                AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
-                if (!currentUser.getRole().getName().equals("STUDENT")) {
+                if (!currentUser.getRoleName().equals("STUDENT")) {
                         throw new RuntimeException("Only students can access student dashboard");
                 }
 
-                if (currentUser.getGroup() == null) {
+                if (currentUser.getGroupId() == null) {
                         throw new RuntimeException("Student is not assigned to any group");
                 }
 
-                Long groupId = currentUser.getGroup().getId();
+                Long groupId = currentUser.getGroupId();
 
                 StudentDashboard dashboard = new StudentDashboard();
-                if (currentUser.getGroup() != null) {
-                        Group group = currentUser.getGroup();
-                        dashboard.setGroupInfo(GroupResponse.fromGroup(group));
-                }
+                Group group = groupRepository.findById(groupId)
+                                .orElseThrow(() -> new RuntimeException("Group not found"));
+                dashboard.setGroupInfo(GroupResponse.fromGroup(group));
 
                 // Populate members
-                if (currentUser.getGroup().getMembers() != null) {
-                        List<UserDTO> members = currentUser.getGroup().getMembers().stream()
+                if (group.getMembers() != null) {
+                        List<UserDTO> members = group.getMembers().stream()
                                         .map(UserDTO::fromUser)
                                         .collect(Collectors.toList());
                         dashboard.setGroupMembers(members);
                 }
 
-                // Get all documents for the group and convert to DTOs
-                List<Document> documents = documentRepository.findByGroupId(groupId);
-                List<DocumentDTO> documentDTOs = documents.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .collect(Collectors.toList());
-                dashboard.setDocuments(documentDTOs);
+                // Get all documents for the group as DTOs
+                List<DocumentDTO> documents = documentRepository.findDTOsByGroupId(groupId);
+                dashboard.setDocuments(documents);
 
                 // Get final grades only and convert to DTOs
                 List<Grade> finalGrades = gradeRepository.findFinalGradesByGroupId(groupId);
@@ -71,9 +69,9 @@ public class DashboardService {
                 dashboard.setGrades(finalGradeDTOs);
 
                 // Get upcoming deadlines and convert to DTOs
-                List<DeadlineDTO> upcomingDeadlines = deadlineRepository
-                                .findUpcomingDeadlines(java.time.Instant.now()).stream()
-                                .map(DeadlineDTO::fromEntity)
+                List<DeadlineDTO> upcomingDeadlines = deadlineCache
+                                .findUpcoming(java.time.Instant.now()).stream()
+                                .map(DeadlineCache.CachedDeadline::toDTO)
                                 .collect(Collectors.toList());
                 dashboard.setUpcomingDeadlines(upcomingDeadlines);
 
@@ -103,9 +101,9 @@ public class DashboardService {
         }
 
         public SupervisorDashboard getSupervisorDashboard() {
-                User currentUser = authService.getCurrentUser();
+                AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
-                if (!currentUser.getRole().getName().equals("SUPERVISOR")) {
+                if (!currentUser.getRoleName().equals("SUPERVISOR")) {
                         throw new RuntimeException("Only supervisors can access supervisor dashboard");
                 }
 
@@ -118,22 +116,16 @@ public class DashboardService {
                                 .collect(Collectors.toList());
                 dashboard.setSupervisedGroups(supervisedGroupDTOs);
 
-                // Get all documents from supervised groups and convert to DTOs
-                List<Document> allDocuments = documentRepository.findBySupervisorId(currentUser.getId());
-                List<DocumentDTO> allDocumentDTOs = allDocuments.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .collect(Collectors.toList());
-                dashboard.setAllDocuments(allDocumentDTOs);
+                // Get all documents from supervised groups as DTOs
+                List<DocumentDTO> allDocuments = documentRepository.findDTOsBySupervisorId(currentUser.getId());
+                dashboard.setAllDocuments(allDocuments);
 
                 // Get documents pending review (submitted or under review - actually supervisor
                 // cares about SUBMITTED)
-                List<Document> pendingReview = allDocuments.stream()
+                List<DocumentDTO> pendingReview = allDocuments.stream()
                                 .filter(d -> d.getStatus() == Document.DocumentStatus.SUBMITTED)
                                 .toList();
-                List<DocumentDTO> pendingReviewDTOs = pendingReview.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .toList();
-                dashboard.setPendingReviewDocuments(pendingReviewDTOs);
+                dashboard.setPendingReviewDocuments(pendingReview);
 
                 // Statistics
                 Map<String, Long> stats = new HashMap<>();
@@ -156,9 +148,9 @@ public class DashboardService {
         }
 
         public CommitteeDashboard getCommitteeDashboard() {
-                User currentUser = authService.getCurrentUser();
+                AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
-                if (!currentUser.getRole().getName().equals("COMMITTEE_MEMBER")) {
+                if (!currentUser.getRoleName().equals("COMMITTEE_MEMBER")) {
                         throw new RuntimeException("Only committee members can access committee dashboard");
                 }
 
@@ -171,22 +163,17 @@ public class DashboardService {
                                 .collect(Collectors.toList());
                 dashboard.setAllGroups(allGroups);
 
-                // Get documents under review and convert to DTOs
-                List<Document> underReview = documentRepository.findByStatus(Document.DocumentStatus.UNDER_REVIEW);
-                List<DocumentDTO> underReviewDTOs = underReview.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .collect(Collectors.toList());
-                dashboard.setDocumentsUnderReview(underReviewDTOs);
+                // Get documents under review as DTOs
+                List<DocumentDTO> underReview = documentRepository
+                                .findDTOsByStatus(Document.DocumentStatus.UNDER_REVIEW);
+                dashboard.setDocumentsUnderReview(underReview);
 
-                // Get approved documents and convert to DTOs
-                List<Document> approved = documentRepository.findByStatus(Document.DocumentStatus.APPROVED);
-                List<DocumentDTO> approvedDTOs = approved.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .collect(Collectors.toList());
-                dashboard.setApprovedDocuments(approvedDTOs);
+                // Get approved documents as DTOs
+                List<DocumentDTO> approved = documentRepository.findDTOsByStatus(Document.DocumentStatus.APPROVED);
+                dashboard.setApprovedDocuments(approved);
 
                 // Get all documents
-                List<Document> allDocuments = documentRepository.findAll();
+                List<DocumentDTO> allDocuments = documentRepository.findAllDTOs();
 
                 // Statistics
                 Map<String, Long> stats = new HashMap<>();
@@ -202,9 +189,9 @@ public class DashboardService {
         }
 
         public FypCommitteeDashboard getFypCommitteeDashboard() {
-                User currentUser = authService.getCurrentUser();
+                AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
-                if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+                if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
                         throw new RuntimeException("Only FYP Committee can access FYP Committee dashboard");
                 }
 
@@ -216,11 +203,8 @@ public class DashboardService {
                                 .collect(Collectors.toList());
                 dashboard.setAllGroups(allGroups);
 
-                // Get all documents and convert to DTOs
-                List<Document> allDocumentsEntities = documentRepository.findAll();
-                List<DocumentDTO> allDocuments = allDocumentsEntities.stream()
-                                .map(DocumentDTO::fromDocument)
-                                .collect(Collectors.toList());
+                // Get all documents as DTOs
+                List<DocumentDTO> allDocuments = documentRepository.findAllDTOs();
                 dashboard.setAllDocuments(allDocuments);
 
                 // Get all grades and convert to DTOs
@@ -238,8 +222,8 @@ public class DashboardService {
                 dashboard.setFinalGrades(finalGradeDTOs);
 
                 // Get all deadlines and convert to DTOs
-                List<DeadlineDTO> allDeadlines = deadlineRepository.findAll().stream()
-                                .map(DeadlineDTO::fromEntity)
+                List<DeadlineDTO> allDeadlines = deadlineCache.findAll().stream()
+                                .map(DeadlineCache.CachedDeadline::toDTO)
                                 .collect(Collectors.toList());
                 dashboard.setAllDeadlines(allDeadlines);
 
@@ -266,6 +250,7 @@ public class DashboardService {
                                                 .count());
                 stats.put("late_submissions", allDocuments.stream().filter(DocumentDTO::getIsLate).count());
                 dashboard.setStatistics(stats);
+                dashboard.setWorkflowStats(documentTransitionLog.recentStats());
 
                 // Populate User stats and lists
                 List<UserDTO> students = userRepository.findByRoleName("STUDENT").stream()
@@ -0,0 +1,146 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.DeadlineDTO;
+import com.university.fyp.entity.Deadline;
+import com.university.fyp.entity.Document;
+import com.university.fyp.event.DeadlinesChangedEvent;
+import com.university.fyp.repository.DeadlineRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Every deadline held in memory as one immutable snapshot, indexed by id and
+ * by document type. Deadlines change a few times a term but are read on each
+ * upload and dashboard load, so reads never touch the database. The snapshot
+ * is rebuilt and swapped in after a deadline is created or deleted, and on a
+ * timer so changes made through another instance are picked up.
+ */
+@Component
+public class DeadlineCache {
+
+    public record CachedDeadline(Long id, String title, String description, Document.DocumentType documentType,
+            Instant dueDate, boolean active) {
+
+        static CachedDeadline of(Deadline deadline) {
+            return new CachedDeadline(deadline.getId(), deadline.getTitle(), deadline.getDescription(),
+                    deadline.getDocumentType(), deadline.getDueDate(), Boolean.TRUE.equals(deadline.getIsActive()));
+        }
+
+        public boolean hasPassed(Instant now) {
+            return now.isAfter(dueDate);
+        }
+
+        public DeadlineDTO toDTO() {
+            return new DeadlineDTO(id, title, description, documentType, dueDate, active);
+        }
+
+        /**
+         * A detached copy for setting an association. Only the id is written,
+         * and reading its fields later costs no query.
+         */
+        public Deadline toReference() {
+            Deadline deadline = new Deadline();
+            deadline.setId(id);
+            deadline.setTitle(title);
+            deadline.setDescription(description);
+            deadline.setDocumentType(documentType);
+            deadline.setDueDate(dueDate);
+            deadline.setIsActive(active);
+            return deadline;
+        }
+    }
+
+    private record Snapshot(Map<Long, CachedDeadline> byId,
+            Map<Document.DocumentType, CachedDeadline> activeByType,
+            List<CachedDeadline> activeByDueDate) {
+    }
+
+    private final DeadlineRepository deadlineRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public DeadlineCache(DeadlineRepository deadlineRepository) {
+        this.deadlineRepository = deadlineRepository;
+    }
+
+    public Optional<CachedDeadline> find(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    /**
+     * The active deadline uploads of this type are checked against, if any.
+     */
+    public Optional<CachedDeadline> findActive(Document.DocumentType type) {
+        return Optional.ofNullable(current().activeByType().get(type));
+    }
+
+    /**
+     * Active deadlines still to come, soonest first.
+     */
+    public List<CachedDeadline> findUpcoming(Instant now) {
+        return current().activeByDueDate().stream()
+                .filter(deadline -> deadline.dueDate().isAfter(now))
+                .toList();
+    }
+
+    public List<CachedDeadline> findActive() {
+        return current().activeByDueDate();
+    }
+
+    public List<CachedDeadline> findAll() {
+        return List.copyOf(current().byId().values());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeadlinesChanged(DeadlinesChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${deadlines.cache.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    // Serialized so a slow scheduled reload cannot overwrite a newer one
+    private synchronized Snapshot reload() {
+        List<CachedDeadline> all = deadlineRepository.findAll().stream()
+                .map(CachedDeadline::of)
+                .sorted(Comparator.comparing(CachedDeadline::id))
+                .toList();
+
+        Map<Long, CachedDeadline> byId = new LinkedHashMap<>();
+        // Should there be several active deadlines for a type, the newest wins
+        Map<Document.DocumentType, CachedDeadline> activeByType = new EnumMap<>(Document.DocumentType.class);
+        for (CachedDeadline deadline : all) {
+            byId.put(deadline.id(), deadline);
+            if (deadline.active()) {
+                activeByType.put(deadline.documentType(), deadline);
+            }
+        }
+        List<CachedDeadline> activeByDueDate = all.stream()
+                .filter(CachedDeadline::active)
+                .sorted(Comparator.comparing(CachedDeadline::dueDate))
+                .toList();
+
+        Snapshot rebuilt = new Snapshot(Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(activeByType), activeByDueDate);
+        snapshot.set(rebuilt);
+        return rebuilt;
+    }
+}
@@ -3,10 +3,11 @@ package com.university.fyp.service;
 import com.university.fyp.dto.DeadlineDTO;
 import com.university.fyp.entity.Deadline;
 import com.university.fyp.entity.Notification;
-import com.university.fyp.entity.User;
+import com.university.fyp.event.DeadlinesChangedEvent;
 import com.university.fyp.repository.DeadlineRepository;
-import com.university.fyp.repository.UserRepository;
+import com.university.fyp.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,24 +22,25 @@ public class DeadlineService {
     private final DeadlineRepository deadlineRepository;
     private final AuthService authService;
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
+    private final DeadlineCache deadlineCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<DeadlineDTO> getAllDeadlines() {
-        return deadlineRepository.findAll().stream()
-                .map(DeadlineDTO::fromEntity)
+        return deadlineCache.findAll().stream()
+                .map(DeadlineCache.CachedDeadline::toDTO)
                 .collect(Collectors.toList());
     }
 
     public List<DeadlineDTO> getActiveDeadlines() {
-        return deadlineRepository.findByIsActive(true).stream()
-                .map(DeadlineDTO::fromEntity)
+        return deadlineCache.findActive().stream()
+                .map(DeadlineCache.CachedDeadline::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public DeadlineDTO createDeadline(DeadlineDTO dto) {
-        User currentUser = authService.getCurrentUser();
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee can create deadlines");
         }
 
@@ -55,34 +57,30 @@ public class DeadlineService {
         deadline.setIsActive(true);
 
         Deadline saved = deadlineRepository.save(deadline);
+        eventPublisher.publishEvent(new DeadlinesChangedEvent(saved.getId()));
 
-        // Notify all students about the new deadline
-        List<User> allStudents = userRepository.findByRoleName("STUDENT");
+        // Notify all students about the new deadline, in a few batched inserts
         String notificationMessage = String.format("New deadline created: %s - Due on %s",
                 deadline.getTitle(),
                 deadline.getDueDate().toString());
-
-        allStudents.forEach(student -> notificationService.createNotification(
-                student,
-                notificationMessage,
-                Notification.NotificationType.DEADLINE_CREATED,
-                "Deadline",
-                saved.getId()));
+        notificationService.notifyRole("STUDENT", notificationMessage,
+                Notification.NotificationType.DEADLINE_CREATED, "Deadline", saved.getId());
 
         return DeadlineDTO.fromEntity(saved);
     }
 
     @Transactional
     public void deleteDeadline(Long id) {
-        User currentUser = authService.getCurrentUser();
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee can delete deadlines");
         }
 
-        if (!deadlineRepository.existsById(id)) {
+        if (deadlineCache.find(id).isEmpty() && !deadlineRepository.existsById(id)) {
             throw new RuntimeException("Deadline not found");
         }
 
         deadlineRepository.deleteById(id);
+        eventPublisher.publishEvent(new DeadlinesChangedEvent(id));
     }
 }
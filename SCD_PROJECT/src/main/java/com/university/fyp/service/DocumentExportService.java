@@ -0,0 +1,187 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.FileInfo;
+import com.university.fyp.entity.Document;
+import com.university.fyp.repository.DeadlineRepository;
+import com.university.fyp.repository.DocumentRepository;
+import com.university.fyp.storage.StoredObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams every group's current document for a deadline or document type as
+ * one ZIP archive. Groups are read in id order, a batch at a time, and each
+ * file is copied straight from storage into the archive, so memory use does
+ * not grow with the cohort. A {@code manifest.csv} entry listing every
+ * document, including ones whose file is missing, closes the archive.
+ *
+ * <p>
+ * Entries are named
+ * {@code <groupId>_<groupName>/<type>_<title>_v<version>_<documentId>} plus
+ * the extension of the uploaded file; the document id keeps names unique for
+ * documents whose titles are equal once sanitized. An interrupted download can be
+ * resumed by passing the id of the last group received completely as the
+ * cursor.
+ */
+@Service
+public class DocumentExportService {
+
+    private static final String MANIFEST_HEADER = "group_id,group_name,document_id,title,type,version,status,"
+            + "submitted_at,late,size_bytes,sha256,entry,error";
+
+    private final DocumentRepository documentRepository;
+    private final DeadlineRepository deadlineRepository;
+    private final BlobStorageService blobStorageService;
+    private final int batchSize;
+    private final int compressionLevel;
+
+    private final Counter exportedBytes;
+    private final Counter exportedEntries;
+
+    public DocumentExportService(DocumentRepository documentRepository,
+            DeadlineRepository deadlineRepository,
+            BlobStorageService blobStorageService,
+            MeterRegistry meterRegistry,
+            @Value("${export.batch-size:50}") int batchSize,
+            @Value("${export.compression-level:1}") int compressionLevel) {
+        this.documentRepository = documentRepository;
+        this.deadlineRepository = deadlineRepository;
+        this.blobStorageService = blobStorageService;
+        this.batchSize = batchSize;
+        this.compressionLevel = compressionLevel;
+        this.exportedBytes = Counter.builder("fyp.export.bytes")
+                .description("File bytes written into export archives")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.exportedEntries = Counter.builder("fyp.export.entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the filter before the response is committed, so mistakes are
+     * reported as errors rather than as an empty archive.
+     */
+    public void validate(Document.DocumentType type, Long deadlineId) {
+        if (type == null && deadlineId == null) {
+            throw new RuntimeException("Either a document type or a deadline is required");
+        }
+        if (deadlineId != null && !deadlineRepository.existsById(deadlineId)) {
+            throw new RuntimeException("Deadline not found");
+        }
+    }
+
+    /**
+     * Writes the archive for groups after {@code afterGroupId}, up to
+     * {@code maxGroups} of them when given. Each batch is loaded in its own
+     * short query, so no connection is held while files are copied.
+     */
+    public void writeArchive(Document.DocumentType type, Long deadlineId, Long afterGroupId, Integer maxGroups,
+            OutputStream out) throws IOException {
+        Path manifest = blobStorageService.newStagingFile();
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            zip.setLevel(compressionLevel);
+
+            try (BufferedWriter rows = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+                rows.write(MANIFEST_HEADER);
+                rows.newLine();
+
+                long cursor = afterGroupId != null ? afterGroupId : 0L;
+                int remaining = maxGroups != null ? maxGroups : Integer.MAX_VALUE;
+                while (remaining > 0) {
+                    List<Long> groupIds = documentRepository.findExportGroupIds(type, deadlineId, cursor,
+                            PageRequest.of(0, Math.min(batchSize, remaining)));
+                    if (groupIds.isEmpty()) {
+                        break;
+                    }
+                    for (Document document : documentRepository.findExportDocuments(groupIds, type, deadlineId)) {
+                        writeEntry(zip, rows, document);
+                    }
+                    cursor = groupIds.get(groupIds.size() - 1);
+                    remaining -= groupIds.size();
+                }
+            }
+
+            zip.putNextEntry(new ZipEntry("manifest.csv"));
+            Files.copy(manifest, zip);
+            zip.closeEntry();
+            zip.finish();
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, BufferedWriter rows, Document document) throws IOException {
+        String entryName = null;
+        String error = null;
+        Long size = null;
+
+        Optional<StoredObject> object = blobStorageService.find(document.getContentHash(), document.getFilePath());
+        if (object.isEmpty()) {
+            error = "File not found";
+        } else {
+            entryName = sanitize(document.getGroup().getId() + "_" + document.getGroup().getGroupName()) + "/"
+                    + sanitize(document.getType() + "_" + document.getTitle() + "_v" + document.getVersion() + "_"
+                            + document.getId())
+                    + extensionOf(document);
+            size = object.get().size();
+            zip.putNextEntry(new ZipEntry(entryName));
+            try (StoredObject stored = object.get(); InputStream in = stored.open(0, size)) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
+            exportedBytes.increment(size);
+            exportedEntries.increment();
+        }
+
+        rows.write(String.join(",",
+                String.valueOf(document.getGroup().getId()),
+                csv(document.getGroup().getGroupName()),
+                String.valueOf(document.getId()),
+                csv(document.getTitle()),
+                document.getType().name(),
+                String.valueOf(document.getVersion()),
+                document.getStatus().name(),
+                document.getSubmittedAt() != null ? document.getSubmittedAt().toString() : "",
+                String.valueOf(document.getIsLate()),
+                size != null ? String.valueOf(size) : "",
+                document.getContentHash() != null ? document.getContentHash() : "",
+                csv(entryName),
+                csv(error)));
+        rows.newLine();
+    }
+
+    private String extensionOf(Document document) {
+        return FileInfo.stored(document.getOriginalFilename(), document.getContentType(), document.getFilePath(),
+                document.getContentHash()).extension();
+    }
+
+    private String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._ -]", "_");
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,205 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.ProcessingJob;
+import com.university.fyp.event.DocumentTextExtractedEvent;
+import com.university.fyp.event.DocumentVersionStoredEvent;
+import com.university.fyp.repository.ProcessingJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs post-upload processing off the request thread. Stored versions become
+ * one {@link ProcessingJob} row per stage, written in the upload transaction;
+ * after commit the jobs are handed to a fixed-size pool with a bounded queue.
+ * When the queue is full jobs simply stay PENDING and are picked up by the
+ * poller as capacity frees, which also retries failed stages with exponential
+ * backoff and requeues jobs orphaned by a restart.
+ */
+@Service
+public class DocumentProcessingPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentProcessingPipeline.class);
+
+    private final ProcessingJobRepository processingJobRepository;
+    private final DocumentProcessor documentProcessor;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration staleAfter;
+
+    private final Timer waitTimer;
+    private final Counter deferred;
+
+    public DocumentProcessingPipeline(ProcessingJobRepository processingJobRepository,
+            DocumentProcessor documentProcessor,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${processing.threads:2}") int threads,
+            @Value("${processing.queue-capacity:100}") int queueCapacity,
+            @Value("${processing.max-attempts:5}") int maxAttempts,
+            @Value("${processing.retry-delay-ms:30000}") long retryDelayMillis,
+            @Value("${processing.stale-after-ms:600000}") long staleAfterMillis) {
+        this.processingJobRepository = processingJobRepository;
+        this.documentProcessor = documentProcessor;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = Duration.ofMillis(retryDelayMillis);
+        this.staleAfter = Duration.ofMillis(staleAfterMillis);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("fyp.processing.wait")
+                .description("Time a processing job spends queued before a worker starts it")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("fyp.processing.deferred")
+                .description("Jobs left for the poller because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("fyp.processing.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates the stage jobs inside the upload transaction. A draft overwritten
+     * under the same version number replaces that version's jobs.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void createJobs(DocumentVersionStoredEvent event) {
+        processingJobRepository.deleteByDocumentIdAndVersionNumber(event.documentId(), event.versionNumber());
+
+        Instant now = Instant.now();
+        List<ProcessingJob> jobs = Arrays.stream(ProcessingJob.Stage.values())
+                .map(stage -> {
+                    ProcessingJob job = new ProcessingJob();
+                    job.setDocumentId(event.documentId());
+                    job.setVersionNumber(event.versionNumber());
+                    job.setContentHash(event.contentHash());
+                    job.setStage(stage);
+                    job.setNextAttemptAt(now);
+                    return job;
+                })
+                .toList();
+        processingJobRepository.saveAll(jobs);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void dispatchJobs(DocumentVersionStoredEvent event) {
+        processingJobRepository.findByDocumentIdAndVersionNumberOrderByStage(event.documentId(),
+                event.versionNumber())
+                .forEach(job -> submit(job.getId()));
+    }
+
+    /**
+     * Requeues jobs whose worker disappeared and fills free queue slots with
+     * due PENDING jobs, oldest first.
+     */
+    @Scheduled(fixedDelayString = "${processing.poll-interval-ms:30000}")
+    public void pollDueJobs() {
+        Instant now = Instant.now();
+        int requeued = processingJobRepository.requeueStale(now.minus(staleAfter), now);
+        if (requeued > 0) {
+            log.warn("Requeued {} stale processing jobs", requeued);
+        }
+
+        int free = queueCapacity - executor.getQueue().size();
+        if (free <= 0) {
+            return;
+        }
+        for (Long jobId : processingJobRepository.findDueIds(now, PageRequest.of(0, free))) {
+            if (!submit(jobId)) {
+                break;
+            }
+        }
+    }
+
+    private boolean submit(Long jobId) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                run(jobId);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            deferred.increment();
+            return false;
+        }
+    }
+
+    private void run(Long jobId) {
+        Instant started = Instant.now();
+        // The same job can be queued by both the event and the poller
+        if (processingJobRepository.claim(jobId, started) == 0) {
+            return;
+        }
+        ProcessingJob job = processingJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        String outcome;
+        try {
+            DocumentProcessor.Outcome result = documentProcessor.process(job);
+            processingJobRepository.complete(jobId, result.status(), truncate(result.result()), Instant.now());
+            outcome = result.status().name();
+            if (job.getStage() == ProcessingJob.Stage.TEXT_EXTRACTION
+                    && result.status() == ProcessingJob.Status.SUCCEEDED) {
+                eventPublisher.publishEvent(new DocumentTextExtractedEvent(job.getDocumentId(), job.getContentHash()));
+            }
+        } catch (Exception e) {
+            boolean exhausted = job.getAttempts() >= maxAttempts;
+            // Exponential backoff: retryDelay, 2x, 4x, ...
+            Duration backoff = retryDelay.multipliedBy(1L << Math.min(job.getAttempts() - 1, 16));
+            processingJobRepository.fail(jobId, exhausted ? ProcessingJob.Status.FAILED : ProcessingJob.Status.PENDING,
+                    truncate(e.getMessage()), Instant.now().plus(backoff), Instant.now());
+            log.error("Processing {} for document {} v{} failed (attempt {} of {})", job.getStage(),
+                    job.getDocumentId(), job.getVersionNumber(), job.getAttempts(), maxAttempts, e);
+            outcome = exhausted ? ProcessingJob.Status.FAILED.name() : "RETRY";
+        }
+
+        Timer.builder("fyp.processing.stage")
+                .description("Time spent running one processing stage")
+                .tag("stage", job.getStage().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= 500) {
+            return value;
+        }
+        return value.substring(0, 500);
+    }
+}
@@ -0,0 +1,185 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.ProcessingJob;
+import com.university.fyp.storage.DocumentStorage;
+import com.university.fyp.storage.StoredObject;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * The work behind each {@link ProcessingJob.Stage}. Outputs are keyed by
+ * content hash under {@code processing.output-dir}, so identical content is
+ * only processed once however many documents share it. Stages other than the
+ * integrity check only apply to PDFs and are skipped for other files.
+ */
+@Component
+public class DocumentProcessor {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private final BlobStorageService blobStorageService;
+    private final Path outputDir;
+    private final float thumbnailDpi;
+
+    public DocumentProcessor(BlobStorageService blobStorageService,
+            @Value("${processing.output-dir:uploads/derived}") String outputDir,
+            @Value("${processing.thumbnail-dpi:36}") float thumbnailDpi) {
+        this.blobStorageService = blobStorageService;
+        this.outputDir = Paths.get(outputDir);
+        this.thumbnailDpi = thumbnailDpi;
+    }
+
+    public record Outcome(ProcessingJob.Status status, String result) {
+    }
+
+    public Outcome process(ProcessingJob job) throws IOException {
+        try (StoredObject object = blobStorageService.find(job.getContentHash(), null)
+                .orElseThrow(() -> new RuntimeException("Stored file not found: " + job.getContentHash()))) {
+            return process(job, object);
+        }
+    }
+
+    private Outcome process(ProcessingJob job, StoredObject object) throws IOException {
+        if (job.getStage() == ProcessingJob.Stage.INTEGRITY_CHECK) {
+            return checkIntegrity(job.getContentHash(), object);
+        }
+        if (!isPdf(object)) {
+            return new Outcome(ProcessingJob.Status.SKIPPED, "Not a PDF");
+        }
+
+        // PDFBox needs random access, so remote content is copied down first
+        Path local = object.localPath().orElse(null);
+        Path temp = null;
+        if (local == null) {
+            temp = blobStorageService.newStagingFile();
+            try (InputStream in = object.open(0, object.size())) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            local = temp;
+        }
+
+        try (PDDocument pdf = Loader.loadPDF(local.toFile())) {
+            return switch (job.getStage()) {
+                case PAGE_COUNT -> new Outcome(ProcessingJob.Status.SUCCEEDED, String.valueOf(pdf.getNumberOfPages()));
+                case TEXT_EXTRACTION -> extractText(job.getContentHash(), pdf);
+                case THUMBNAIL -> renderThumbnail(job.getContentHash(), pdf);
+                default -> throw new IllegalStateException("Unhandled stage " + job.getStage());
+            };
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Plain text extracted from the content, if that stage has run.
+     */
+    public Optional<Path> extractedText(String contentHash) {
+        Path path = outputFor(contentHash, ".txt");
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Removes everything derived from the content, once the content itself
+     * has been deleted.
+     */
+    public void deleteOutputs(String contentHash) throws IOException {
+        Files.deleteIfExists(outputFor(contentHash, ".txt"));
+        Files.deleteIfExists(outputFor(contentHash, ".png"));
+    }
+
+    private Outcome checkIntegrity(String contentHash, StoredObject object) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(object.open(0, object.size()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equals(contentHash)) {
+            throw new RuntimeException("Stored content hashes to " + actual);
+        }
+        return new Outcome(ProcessingJob.Status.SUCCEEDED, object.size() + " bytes verified");
+    }
+
+    private Outcome extractText(String contentHash, PDDocument pdf) throws IOException {
+        Path target = outputFor(contentHash, ".txt");
+        if (!Files.exists(target)) {
+            String text = new PDFTextStripper().getText(pdf);
+            writeAtomically(target, out -> out.write(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return new Outcome(ProcessingJob.Status.SUCCEEDED, Files.size(target) + " bytes of text");
+    }
+
+    private Outcome renderThumbnail(String contentHash, PDDocument pdf) throws IOException {
+        if (pdf.getNumberOfPages() == 0) {
+            return new Outcome(ProcessingJob.Status.SKIPPED, "No pages");
+        }
+        Path target = outputFor(contentHash, ".png");
+        if (!Files.exists(target)) {
+            BufferedImage image = new PDFRenderer(pdf).renderImageWithDPI(0, thumbnailDpi);
+            writeAtomically(target, out -> ImageIO.write(image, "png", out));
+        }
+        return new Outcome(ProcessingJob.Status.SUCCEEDED, outputDir.relativize(target).toString());
+    }
+
+    private boolean isPdf(StoredObject object) throws IOException {
+        if (object.size() < PDF_MAGIC.length) {
+            return false;
+        }
+        try (InputStream in = object.open(0, PDF_MAGIC.length)) {
+            return Arrays.equals(in.readNBytes(PDF_MAGIC.length), PDF_MAGIC);
+        }
+    }
+
+    private Path outputFor(String contentHash, String extension) {
+        return outputDir.resolve(DocumentStorage.shardedName(contentHash) + extension);
+    }
+
+    // Concurrent runs for the same content must never expose a half-written file
+    private void writeAtomically(Path target, OutputWriter writer) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "derived-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface OutputWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
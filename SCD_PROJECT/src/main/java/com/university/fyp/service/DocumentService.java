@@ -1,52 +1,98 @@
 package com.university.fyp.service;
 
+import com.university.fyp.dto.CursorPage;
+import com.university.fyp.dto.DocumentContent;
 import com.university.fyp.dto.DocumentDTO;
+import com.university.fyp.dto.FileInfo;
+import com.university.fyp.dto.ProcessingJobDTO;
 import com.university.fyp.entity.*;
+import com.university.fyp.event.DocumentVersionStoredEvent;
+import com.university.fyp.event.ReviewCreatedEvent;
 import com.university.fyp.repository.*;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
+import com.university.fyp.storage.StoredObject;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
 
+    // Statuses in which the committee grades a document
+    private static final List<Document.DocumentStatus> GRADABLE_STATUSES = List.of(
+            Document.DocumentStatus.APPROVED, Document.DocumentStatus.REVISION_REQUESTED);
+
+    private static final Comparator<DocumentDTO> GRADING_ORDER = Comparator
+            .comparing(DocumentService::submittedOrCreatedAt)
+            .thenComparing(DocumentDTO::getId);
+
     private final DocumentRepository documentRepository;
     private final GroupRepository groupRepository;
-    private final DeadlineRepository deadlineRepository;
     private final VersionHistoryRepository versionHistoryRepository;
     private final ReviewRepository reviewRepository;
     private final NotificationService notificationService;
     private final AuthService authService;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final BlobStorageService blobStorageService;
+    private final ProcessingJobRepository processingJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPager keysetPager;
+    private final DocumentWorkflow documentWorkflow;
+    private final DeadlineCache deadlineCache;
+
+    /**
+     * Upload checks that can be made before any file data is stored: group
+     * access, whether the document accepts a new file, and the deadline. Runs
+     * in its own short transaction; {@link #uploadDocument} repeats the checks.
+     */
+    @Transactional(readOnly = true)
+    public void validateUpload(Long groupId, Document.DocumentType type, Long deadlineId) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+
+        // Verify user has permission to upload for this group
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, groupId)) {
+            throw new RuntimeException("You don't have permission to upload documents for this group");
+        }
 
-    private static final String UPLOAD_DIR = "uploads/documents/";
+        List<Document> existingDocs = documentRepository.findByGroupIdAndType(groupId, type);
+        Document existing = existingDocs.isEmpty() ? null : existingDocs.get(0);
+        if (existing != null) {
+            checkAcceptsUpload(existing);
+        }
+        resolveDeadline(existing, type, deadlineId);
+    }
 
+    /**
+     * Records an upload whose content is already in storage: creates or updates
+     * the document, takes the blob references and writes the version history.
+     * Only database work happens here, so the transaction stays short.
+     */
     @Transactional
-    public Document uploadDocument(Long groupId, String title, Document.DocumentType type,
-            MultipartFile file, String changeDescription, Long deadlineId) throws IOException {
-        User currentUser = authService.getCurrentUser();
+    public DocumentDTO uploadDocument(Long groupId, String title, Document.DocumentType type,
+            BlobStorageService.Blob blob, FileInfo file, String changeDescription, Long deadlineId) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        User uploader = authService.getCurrentUserReference();
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
-        // Trigger lazy loading of members to ensure they're available for permission
-        // check
-        if (group.getMembers() != null) {
-            group.getMembers().size(); // Force load members
-        }
-
         // Verify user has permission to upload for this group
-        if (!canUserAccessGroup(currentUser, group)) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, group.getId())) {
             throw new RuntimeException("You don't have permission to upload documents for this group");
         }
 
@@ -58,12 +104,7 @@ public class DocumentService {
         if (!existingDocs.isEmpty()) {
             // Update existing document
             document = existingDocs.get(0);
-
-            // Can only upload if document is in DRAFT or REVISION_REQUESTED status
-            if (document.getStatus() != Document.DocumentStatus.DRAFT &&
-                    document.getStatus() != Document.DocumentStatus.REVISION_REQUESTED) {
-                throw new RuntimeException("Cannot upload new version. Document is " + document.getStatus());
-            }
+            checkAcceptsUpload(document);
 
             // Version handling:
             // - If status is REVISION_REQUESTED: increment version (new revision)
@@ -76,7 +117,7 @@ public class DocumentService {
                 version = document.getVersion();
             }
 
-            document.setStatus(Document.DocumentStatus.DRAFT);
+            documentWorkflow.apply(document, DocumentTransition.Operation.UPLOAD, Document.DocumentStatus.DRAFT);
         } else {
             // Create new document
             document = new Document();
@@ -85,47 +126,31 @@ public class DocumentService {
             document.setType(type);
             document.setVersion(version);
             document.setStatus(Document.DocumentStatus.DRAFT);
-            document.setUploadedBy(currentUser);
+            document.setUploadedBy(uploader);
         }
 
-        // Save file
-        String filePath = saveFile(file, groupId, type, version);
-        document.setFilePath(filePath);
-
-        // Set deadline if provided
-        // Determine deadline logic
-        if (deadlineId != null) {
-            Deadline deadline = deadlineRepository.findById(deadlineId)
-                    .orElseThrow(() -> new RuntimeException("Deadline not found"));
-
-            // Validate deadline has not passed
-            if (Instant.now().isAfter(deadline.getDueDate())) {
-                throw new RuntimeException(
-                        "Cannot upload document: The deadline '" + deadline.getTitle() + "' has passed.");
-            }
-            document.setDeadline(deadline);
-        } else {
-            // If no explicit deadline provided, try to auto-link active deadline for this
-            // document type
-            if (document.getDeadline() == null) {
-                deadlineRepository.findByDocumentTypeAndIsActive(type, true).ifPresent(deadline -> {
-                    document.setDeadline(deadline);
-                });
-            }
-
-            // Check against the deadline (either existing or auto-linked)
-            if (document.getDeadline() != null) {
-                if (Instant.now().isAfter(document.getDeadline().getDueDate())) {
-                    throw new RuntimeException("Cannot upload document: The deadline '"
-                            + document.getDeadline().getTitle() + "' has passed.");
-                }
-            }
+        DeadlineCache.CachedDeadline deadline = resolveDeadline(existingDocs.isEmpty() ? null : document, type,
+                deadlineId);
+        if (deadline != null) {
+            document.setDeadline(deadline.toReference());
         }
 
+        // The document takes one reference on the new content and drops its old one
+        blobStorageService.acquire(blob);
+        blobStorageService.release(document.getContentHash());
+        document.setFilePath(blob.path());
+        document.setContentHash(blob.contentHash());
+        document.setOriginalFilename(file.fileName());
+        document.setContentType(file.contentType());
+
         Document savedDocument = documentRepository.save(document);
 
         // Create version history entry
-        createVersionHistory(savedDocument, version, filePath, changeDescription, currentUser);
+        createVersionHistory(savedDocument, version, blob, file, changeDescription, uploader);
+
+        // Text extraction, thumbnails etc. run asynchronously once this commits
+        eventPublisher.publishEvent(new DocumentVersionStoredEvent(savedDocument.getId(), version,
+                blob.contentHash()));
 
         // Notify supervisor about document upload/resubmission
         if (savedDocument.getGroup().getSupervisor() != null) {
@@ -155,10 +180,42 @@ public class DocumentService {
                     savedDocument.getId());
         }
 
-        // Trigger lazy loading before returning
-        triggerLazyLoading(savedDocument);
+        // Upload requests run without open-in-view, so convert while the session is open
+        return DocumentDTO.fromDocument(savedDocument);
+    }
 
-        return savedDocument;
+    // Can only upload if document is in DRAFT or REVISION_REQUESTED status
+    private void checkAcceptsUpload(Document document) {
+        if (!documentWorkflow.allows(DocumentTransition.Operation.UPLOAD, document.getStatus(),
+                Document.DocumentStatus.DRAFT)) {
+            throw new RuntimeException("Cannot upload new version. Document is " + document.getStatus());
+        }
+    }
+
+    /**
+     * The deadline an upload is checked against: the one given explicitly, else
+     * the one already linked to the document, else the active deadline for the
+     * document type. Fails if that deadline has passed. Deadlines are read
+     * from the in-memory snapshot, so this makes no queries.
+     */
+    private DeadlineCache.CachedDeadline resolveDeadline(Document existing, Document.DocumentType type,
+            Long deadlineId) {
+        DeadlineCache.CachedDeadline deadline;
+        if (deadlineId != null) {
+            deadline = deadlineCache.find(deadlineId)
+                    .orElseThrow(() -> new RuntimeException("Deadline not found"));
+        } else if (existing != null && existing.getDeadline() != null) {
+            // Reading the id does not initialize the lazy association
+            deadline = deadlineCache.find(existing.getDeadline().getId()).orElse(null);
+        } else {
+            deadline = deadlineCache.findActive(type).orElse(null);
+        }
+
+        if (deadline != null && deadline.hasPassed(Instant.now())) {
+            throw new RuntimeException(
+                    "Cannot upload document: The deadline '" + deadline.title() + "' has passed.");
+        }
+        return deadline;
     }
 
     /**
@@ -182,12 +239,12 @@ public class DocumentService {
 
     @Transactional
     public Document submitDocument(Long documentId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
         // Verify user has permission
-        if (!canUserAccessGroup(currentUser, document.getGroup())) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, document.getGroup().getId())) {
             throw new RuntimeException("You don't have permission to submit this document");
         }
 
@@ -199,28 +256,10 @@ public class DocumentService {
                     ". Please upload a new version first if the document requires revision.");
         }
 
-        // Update status and submission time
-        document.setStatus(Document.DocumentStatus.SUBMITTED);
-        document.setSubmittedAt(Instant.now());
-
-        // Check if submission is late
-        if (document.getDeadline() != null) {
-            boolean isLate = document.getSubmittedAt().isAfter(document.getDeadline().getDueDate());
-            document.setIsLate(isLate);
-        }
-
+        // Stamps the submission time and lateness, and notifies the supervisor
+        documentWorkflow.apply(document, DocumentTransition.Operation.SUBMIT, Document.DocumentStatus.SUBMITTED);
         Document savedDocument = documentRepository.save(document);
 
-        // Notify supervisor
-        if (document.getGroup().getSupervisor() != null) {
-            notificationService.createNotification(
-                    document.getGroup().getSupervisor(),
-                    "New document submitted: " + document.getTitle() + " by " + document.getGroup().getGroupName(),
-                    Notification.NotificationType.GENERAL,
-                    "Document",
-                    document.getId());
-        }
-
         // Trigger lazy loading before returning
         triggerLazyLoading(savedDocument);
 
@@ -229,246 +268,223 @@ public class DocumentService {
 
     @Transactional
     public Document updateDocumentStatus(Long documentId, Document.DocumentStatus newStatus) {
-        User currentUser = authService.getCurrentUser();
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        // Only supervisors and committee members can change status
-        String roleName = currentUser.getRole().getName();
-        if (!roleName.equals("SUPERVISOR") && !roleName.equals("COMMITTEE_MEMBER") &&
-                !roleName.equals("FYP_COMMITTEE")) {
-            throw new RuntimeException("Only supervisors and committee members can update document status");
-        }
-
-        // Validate state transitions
-        validateStatusTransition(document.getStatus(), newStatus);
-
-        document.setStatus(newStatus);
+        // Supervisors and committee members only; notifies the group members
+        documentWorkflow.apply(document, DocumentTransition.Operation.SET_STATUS, newStatus);
         Document savedDocument = documentRepository.save(document);
 
-        // Notify group members
-        notifyGroupMembers(document, newStatus);
-
         // Trigger lazy loading before returning
         triggerLazyLoading(savedDocument);
 
         return savedDocument;
     }
 
-    private void validateStatusTransition(Document.DocumentStatus currentStatus, Document.DocumentStatus newStatus) {
-        // DRAFT -> SUBMITTED (done by student)
-        // SUBMITTED -> UNDER_REVIEW (done by supervisor/committee)
-        // UNDER_REVIEW -> APPROVED or REVISION_REQUESTED (done by supervisor/committee)
-        // APPROVED -> GRADED (done by committee)
-        // REVISION_REQUESTED -> DRAFT (automatic when new version uploaded)
-
-        switch (currentStatus) {
-            case SUBMITTED:
-                if (newStatus != Document.DocumentStatus.UNDER_REVIEW) {
-                    throw new RuntimeException("Submitted documents can only move to UNDER_REVIEW");
-                }
-                break;
-            case UNDER_REVIEW:
-                if (newStatus != Document.DocumentStatus.APPROVED &&
-                        newStatus != Document.DocumentStatus.REVISION_REQUESTED) {
-                    throw new RuntimeException("Documents under review can only be APPROVED or REVISION_REQUESTED");
-                }
-                break;
-            case APPROVED:
-                if (newStatus != Document.DocumentStatus.GRADED) {
-                    throw new RuntimeException("Approved documents can only move to GRADED");
-                }
-                break;
-            default:
-                throw new RuntimeException("Invalid status transition from " + currentStatus + " to " + newStatus);
+    private void createVersionHistory(Document document, int version, BlobStorageService.Blob blob,
+            FileInfo file, String changeDescription, User uploadedBy) {
+        // An overwritten draft replaces its version's entry instead of piling up behind it.
+        // A new row rather than an update, because version downloads are cached as immutable.
+        for (VersionHistory superseded : versionHistoryRepository.findByDocumentIdAndVersionNumber(
+                document.getId(), version)) {
+            blobStorageService.release(superseded.getContentHash());
+            versionHistoryRepository.delete(superseded);
         }
-    }
+        blobStorageService.retain(blob.contentHash());
 
-    private void createVersionHistory(Document document, int version, String filePath,
-            String changeDescription, User uploadedBy) {
         VersionHistory versionHistory = new VersionHistory();
         versionHistory.setDocument(document);
         versionHistory.setVersionNumber(version);
-        versionHistory.setFilePath(filePath);
+        versionHistory.setFilePath(blob.path());
+        versionHistory.setContentHash(blob.contentHash());
+        versionHistory.setOriginalFilename(file.fileName());
+        versionHistory.setContentType(file.contentType());
         versionHistory.setChangeDescription(changeDescription);
         versionHistory.setUploadedBy(uploadedBy);
         versionHistoryRepository.save(versionHistory);
     }
 
-    private String saveFile(MultipartFile file, Long groupId, Document.DocumentType type, int version)
-            throws IOException {
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : "";
-
-        String filename = String.format("group_%d_%s_v%d_%s%s",
-                groupId, type, version, UUID.randomUUID().toString(), extension);
+    private void checkCanViewAllDocuments() {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        // Only committee members and FYP committee can view all documents
+        if (!roleName.equals("COMMITTEE_MEMBER") && !roleName.equals("FYP_COMMITTEE")) {
+            throw new RuntimeException("You don't have permission to view all documents");
         }
-
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return filePath.toString();
     }
 
-    private boolean canUserAccessGroup(User user, Group group) {
-        String roleName = user.getRole().getName();
+    public Document getDocumentById(Long documentId) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        // Students can only access their own group and must be a member of that group
-        if (roleName.equals("STUDENT")) {
-            // First check: user must have a group assigned
-            if (user.getGroup() == null) {
-                return false;
-            }
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, document.getGroup().getId())) {
+            throw new RuntimeException("You don't have permission to view this document");
+        }
 
-            // Second check: user's group ID must match the requested group ID
-            if (!user.getGroup().getId().equals(group.getId())) {
-                return false;
-            }
+        // Trigger lazy loading before returning
+        triggerLazyLoading(document);
 
-            // Third check: verify user is actually in the group's members set (if members
-            // are loaded)
-            // If members are not loaded (lazy), we trust the foreign key relationship
-            if (group.getMembers() != null && !group.getMembers().isEmpty()) {
-                // Members are loaded, verify user is in the set
-                boolean isMember = group.getMembers().stream()
-                        .anyMatch(member -> member.getId().equals(user.getId()));
-                if (!isMember) {
-                    return false;
-                }
-            }
-            // If members are not loaded, we rely on the foreign key relationship
-            // (user.group_id = group.id)
-            // which is already validated above
+        return document;
+    }
 
-            return true;
-        }
+    /**
+     * Resolves the current file of a document for download.
+     */
+    public DocumentContent getDocumentContent(Long documentId) throws IOException {
+        Document document = getDocumentById(documentId);
+        return resolveContent(document.getContentHash(), document.getFilePath(), document.getOriginalFilename(),
+                document.getContentType(), document.getTitle(), document.getVersion());
+    }
 
-        // Supervisors can access groups they supervise
-        if (roleName.equals("SUPERVISOR")) {
-            return group.getSupervisor() != null && group.getSupervisor().getId().equals(user.getId());
+    /**
+     * Resolves the file of one version history entry for download.
+     */
+    public DocumentContent getVersionContent(Long documentId, Long versionId) throws IOException {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        VersionHistory versionHistory = versionHistoryRepository.findById(versionId)
+                .filter(v -> v.getDocument().getId().equals(documentId))
+                .orElseThrow(() -> new RuntimeException("Version not found"));
+        Document document = versionHistory.getDocument();
+
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, document.getGroup().getId())) {
+            throw new RuntimeException("You don't have permission to view this document");
         }
 
-        // Committee members and FYP committee can access all groups
-        return roleName.equals("COMMITTEE_MEMBER") || roleName.equals("FYP_COMMITTEE");
+        return resolveContent(versionHistory.getContentHash(), versionHistory.getFilePath(),
+                versionHistory.getOriginalFilename(), versionHistory.getContentType(), document.getTitle(),
+                versionHistory.getVersionNumber());
     }
 
-    private void notifyGroupMembers(Document document, Document.DocumentStatus newStatus) {
-        Group group = document.getGroup();
-        String message = String.format("Document '%s' status updated to %s",
-                document.getTitle(), newStatus);
-
-        Notification.NotificationType notificationType = switch (newStatus) {
-            case APPROVED -> Notification.NotificationType.DOCUMENT_APPROVED;
-            case REVISION_REQUESTED -> Notification.NotificationType.REVISION_REQUESTED;
-            default -> Notification.NotificationType.GENERAL;
-        };
-
-        // Notify all group members
-        group.getMembers().forEach(member -> notificationService.createNotification(member, message, notificationType,
-                "Document", document.getId()));
+    private DocumentContent resolveContent(String contentHash, String filePath, String originalFilename,
+            String contentType, String title, int version) throws IOException {
+        StoredObject object = blobStorageService.find(contentHash, filePath)
+                .orElseThrow(() -> new RuntimeException("File not found"));
+
+        // Content hashes give a strong validator; legacy files fall back to a weak one
+        String etag = contentHash != null
+                ? "\"" + contentHash + "\""
+                : "W/\"" + object.size() + "-" + filePath.hashCode() + "\"";
+
+        // Files uploaded before names were recorded are named after the document
+        FileInfo file = FileInfo.stored(originalFilename, contentType, filePath, contentHash);
+        String fileName = originalFilename != null
+                ? originalFilename
+                : String.format("%s_v%d%s", title, version, file.extension());
+        return new DocumentContent(object, etag, fileName, file.contentType());
     }
 
-    public List<Document> getDocumentsByGroup(Long groupId) {
-        User currentUser = authService.getCurrentUser();
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
+    // DTO conversion methods
+    public DocumentDTO getDocumentDTOById(Long documentId) {
+        Document document = getDocumentById(documentId);
+        return DocumentDTO.fromDocument(document);
+    }
 
-        if (!canUserAccessGroup(currentUser, group)) {
+    // Listings are read as DTO projections, one statement per list
+    public List<DocumentDTO> getDocumentDTOsByGroup(Long groupId) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, groupId)) {
             throw new RuntimeException("You don't have permission to view documents for this group");
         }
-
-        List<Document> documents = documentRepository.findByGroupId(groupId);
-        // Trigger lazy loading for all documents
-        documents.forEach(this::triggerLazyLoading);
-        return documents;
+        return documentRepository.findDTOsByGroupId(groupId);
     }
 
-    public List<Document> getDocumentsBySupervisor(Long supervisorId) {
-        List<Document> documents = documentRepository.findBySupervisorId(supervisorId);
-        // Trigger lazy loading for all documents
-        documents.forEach(this::triggerLazyLoading);
-        return documents;
+    public List<DocumentDTO> getDocumentDTOsBySupervisor(Long supervisorId) {
+        return documentRepository.findDTOsBySupervisorId(supervisorId);
     }
 
-    public List<Document> getAllDocumentsByStatus(Document.DocumentStatus status) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
-
-        // Only committee members and FYP committee can view all documents
-        if (!roleName.equals("COMMITTEE_MEMBER") && !roleName.equals("FYP_COMMITTEE")) {
-            throw new RuntimeException("You don't have permission to view all documents");
-        }
-
-        List<Document> documents = documentRepository.findByStatus(status);
-        // Trigger lazy loading for all documents
-        documents.forEach(this::triggerLazyLoading);
-        return documents;
+    public List<DocumentDTO> getAllDocumentDTOsByStatus(Document.DocumentStatus status) {
+        checkCanViewAllDocuments();
+        return documentRepository.findDTOsByStatus(status);
     }
 
-    public Document getDocumentById(Long documentId) {
-        User currentUser = authService.getCurrentUser();
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new RuntimeException("Document not found"));
+    public CursorPage<DocumentDTO> getDocumentDTOPageByStatus(Document.DocumentStatus status, String cursor,
+            Integer limit) {
+        checkCanViewAllDocuments();
+        KeysetPager.Cursor position = keysetPager.decode(cursor);
+        int pageSize = keysetPager.limit(limit);
+        List<DocumentDTO> rows = documentRepository.findPageByStatus(status, position.createdAt(), position.id(),
+                keysetPager.probe(pageSize));
+        return keysetPager.page(rows, pageSize, DocumentDTO::getCreatedAt, DocumentDTO::getId);
+    }
 
-        if (!canUserAccessGroup(currentUser, document.getGroup())) {
-            throw new RuntimeException("You don't have permission to view this document");
+    /**
+     * Documents awaiting a committee grade, oldest submission first. Unpaged
+     * when both cursor and limit are null.
+     */
+    public CursorPage<DocumentDTO> getGradableDocumentDTOs(String cursor, Integer limit) {
+        checkCanViewAllDocuments();
+        KeysetPager.Cursor position = keysetPager.decodeAscending(cursor);
+        if (cursor == null && limit == null) {
+            return new CursorPage<>(findUngraded(position, Pageable.unpaged()), null, false);
         }
-
-        // Trigger lazy loading before returning
-        triggerLazyLoading(document);
-
-        return document;
+        int pageSize = keysetPager.limit(limit);
+        Pageable probe = keysetPager.probe(pageSize);
+        List<DocumentDTO> rows = findUngraded(position, probe);
+        return keysetPager.page(rows.subList(0, Math.min(rows.size(), probe.getPageSize())), pageSize,
+                DocumentService::submittedOrCreatedAt, DocumentDTO::getId);
     }
 
-    // DTO conversion methods
-    public DocumentDTO getDocumentDTOById(Long documentId) {
-        Document document = getDocumentById(documentId);
-        return DocumentDTO.fromDocument(document);
+    // Each status is read in index order, then the sorted runs are merged
+    private List<DocumentDTO> findUngraded(KeysetPager.Cursor position, Pageable pageable) {
+        List<DocumentDTO> rows = new ArrayList<>();
+        for (Document.DocumentStatus status : GRADABLE_STATUSES) {
+            rows.addAll(documentRepository.findUngradedPage(status, position.createdAt(), position.id(), pageable));
+        }
+        rows.sort(GRADING_ORDER);
+        return rows;
     }
 
-    public List<DocumentDTO> getDocumentDTOsByGroup(Long groupId) {
-        List<Document> documents = getDocumentsByGroup(groupId);
-        return documents.stream()
-                .map(DocumentDTO::fromDocument)
-                .collect(Collectors.toList());
+    private static Instant submittedOrCreatedAt(DocumentDTO document) {
+        return document.getSubmittedAt() != null ? document.getSubmittedAt() : document.getCreatedAt();
     }
 
-    public List<DocumentDTO> getDocumentDTOsBySupervisor(Long supervisorId) {
-        List<Document> documents = getDocumentsBySupervisor(supervisorId);
-        return documents.stream()
-                .map(DocumentDTO::fromDocument)
-                .collect(Collectors.toList());
+    /**
+     * Fills the grading sort column for documents written before it existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillGradingOrder() {
+        documentRepository.backfillSubmittedOrCreatedAt();
     }
 
-    public List<DocumentDTO> getAllDocumentDTOsByStatus(Document.DocumentStatus status) {
-        List<Document> documents = getAllDocumentsByStatus(status);
-        return documents.stream()
-                .map(DocumentDTO::fromDocument)
-                .collect(Collectors.toList());
+    public CursorPage<DocumentDTO> getDocumentDTOPageBySupervisor(Long supervisorId, String cursor, Integer limit) {
+        KeysetPager.Cursor position = keysetPager.decode(cursor);
+        int pageSize = keysetPager.limit(limit);
+        List<DocumentDTO> rows = documentRepository.findPageBySupervisorId(supervisorId, position.createdAt(),
+                position.id(), keysetPager.probe(pageSize));
+        return keysetPager.page(rows, pageSize, DocumentDTO::getCreatedAt, DocumentDTO::getId);
     }
 
     public List<VersionHistory> getDocumentVersionHistory(Long documentId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        if (!canUserAccessGroup(currentUser, document.getGroup())) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, document.getGroup().getId())) {
             throw new RuntimeException("You don't have permission to view this document's history");
         }
 
         return versionHistoryRepository.findByDocumentIdOrderByVersionNumberDesc(documentId);
     }
 
+    /**
+     * Per-stage processing state of the document's current version.
+     */
+    public List<ProcessingJobDTO> getProcessingStatus(Long documentId) {
+        Document document = getDocumentById(documentId);
+        return processingJobRepository
+                .findByDocumentIdAndVersionNumberOrderByStage(document.getId(), document.getVersion())
+                .stream()
+                .map(ProcessingJobDTO::fromJob)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public Document reviewDocument(Long documentId, String action, String comments) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Business Rule 1: SUPERVISOR or COMMITTEE_MEMBER can review
         if (!roleName.equals("SUPERVISOR") && !roleName.equals("COMMITTEE_MEMBER")) {
@@ -480,21 +496,10 @@ public class DocumentService {
 
         Group group = document.getGroup();
 
-        // Business Rule 2: Validation based on role
-        if (roleName.equals("SUPERVISOR")) {
-            if (document.getStatus() != Document.DocumentStatus.SUBMITTED) {
-                throw new RuntimeException("Supervisors can only review SUBMITTED documents.");
-            }
-            // Supervisor must own group
-            if (group.getSupervisor() == null || !group.getSupervisor().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("You can only review documents from groups you supervise");
-            }
-        } else {
-            // COMMITTEE_MEMBER
-            if (document.getStatus() != Document.DocumentStatus.APPROVED) {
-                throw new RuntimeException("Committee members can only request revision on APPROVED documents.");
-            }
-            // Committee can access all (or assigned) - currently all
+        // Business Rule 2: Supervisor must own group. Which states each role may
+        // review from is part of the workflow table.
+        if (roleName.equals("SUPERVISOR") && !groupAccessEvaluator.supervises(currentUser, group.getId())) {
+            throw new RuntimeException("You can only review documents from groups you supervise");
         }
 
         // Validate action
@@ -514,17 +519,19 @@ public class DocumentService {
             reviewStatus = Review.ReviewStatus.REVISION_REQUESTED;
         }
 
-        document.setStatus(newStatus);
+        // Of two reviewers acting at once only one gets past this point
+        documentWorkflow.apply(document, DocumentTransition.Operation.REVIEW, newStatus);
         Document savedDocument = documentRepository.save(document);
 
         // Business Rule 5: Every review must be logged
         Review review = new Review();
         review.setDocument(savedDocument);
-        review.setReviewer(currentUser);
+        review.setReviewer(authService.getCurrentUserReference());
         review.setComments(comments != null ? comments : "");
         review.setStatus(reviewStatus);
         // reviewedAt is automatically set by @CreatedDate annotation
-        reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewCreatedEvent(savedReview.getId()));
 
         // Notify group members
         String message = String.format("Document '%s' has been reviewed: %s",
@@ -533,16 +540,13 @@ public class DocumentService {
                 ? Notification.NotificationType.DOCUMENT_APPROVED
                 : Notification.NotificationType.REVISION_REQUESTED;
 
-        group.getMembers().forEach(member -> notificationService.createNotification(
-                member,
-                message,
-                notificationType,
-                "Document",
-                savedDocument.getId()));
+        notificationService.notifyGroupMembers(group.getId(), message, notificationType, "Document",
+                savedDocument.getId());
 
         // Trigger lazy loading before returning
         triggerLazyLoading(savedDocument);
 
         return savedDocument;
     }
+
 }
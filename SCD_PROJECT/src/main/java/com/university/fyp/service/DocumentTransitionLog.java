@@ -0,0 +1,173 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.TransitionStatsDTO;
+import com.university.fyp.event.DocumentTransitionedEvent;
+import com.university.fyp.repository.DocumentTransitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of document status changes. Committed transitions are
+ * buffered in memory and written as batched JDBC inserts, either when a full
+ * batch has built up or on a timer, so the workflow never waits on the log.
+ * Entries still buffered when the process dies are lost; the documents
+ * themselves are unaffected. The buffer holds at most
+ * {@code workflow.log.buffer-capacity} entries: while the database cannot be
+ * written, the oldest entries are dropped to make room and counted in
+ * {@code fyp.workflow.log.dropped}. Dashboards read per-transition counts and
+ * durations from the log instead of scanning documents.
+ */
+@Service
+public class DocumentTransitionLog {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentTransitionLog.class);
+
+    private static final String INSERT_TRANSITION_SQL = "INSERT INTO document_transitions "
+            + "(document_id, from_status, to_status, operation, actor_id, duration_ms, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DocumentTransitionRepository documentTransitionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration statsWindow;
+
+    private final LinkedBlockingDeque<DocumentTransitionedEvent> buffer;
+    // Only one thread writes at a time; others leave their entries for it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter written;
+    private final Counter dropped;
+
+    public DocumentTransitionLog(DocumentTransitionRepository documentTransitionRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${workflow.log.batch-size:200}") int batchSize,
+            @Value("${workflow.stats-window-days:90}") int statsWindowDays,
+            @Value("${workflow.log.buffer-capacity:100000}") int bufferCapacity) {
+        this.documentTransitionRepository = documentTransitionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // A full batch is written from an after-commit callback, where the
+        // finished request transaction is still bound to the thread
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.statsWindow = Duration.ofDays(statsWindowDays);
+        this.buffer = new LinkedBlockingDeque<>(bufferCapacity);
+        this.written = Counter.builder("fyp.workflow.log.written")
+                .description("Transition log rows inserted")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("fyp.workflow.log.dropped")
+                .description("Transition log entries dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("fyp.workflow.log.buffered", buffer, b -> b.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count and time spent before each kind of transition over the stats
+     * window. Entries still in the buffer are not included.
+     */
+    public List<TransitionStatsDTO> recentStats() {
+        return documentTransitionRepository.findStatsSince(Instant.now().minus(statsWindow));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void record(DocumentTransitionedEvent event) {
+        while (!buffer.offer(event)) {
+            // Full while the database is unavailable; keep the newest entries
+            if (buffer.pollFirst() != null) {
+                dropped.increment();
+            }
+        }
+        if (buffer.size() >= batchSize && flushLock.tryLock()) {
+            try {
+                writeBatches();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.log.flush-interval-ms:5000}")
+    public void flush() {
+        if (flushLock.tryLock()) {
+            try {
+                writeBatches();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushLock.lock();
+        try {
+            writeBatches();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBatches() {
+        while (!buffer.isEmpty()) {
+            List<DocumentTransitionedEvent> events = new ArrayList<>(batchSize);
+            buffer.drainTo(events, batchSize);
+
+            List<Object[]> batch = new ArrayList<>(events.size());
+            for (DocumentTransitionedEvent event : events) {
+                batch.add(new Object[] {
+                        event.documentId(),
+                        event.fromStatus().name(),
+                        event.toStatus().name(),
+                        event.operation().name(),
+                        event.actorId(),
+                        event.durationMs(),
+                        Timestamp.from(event.occurredAt())
+                });
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_TRANSITION_SQL,
+                        batch));
+                written.increment(events.size());
+            } catch (DataAccessException e) {
+                // Put the batch back in order and try again on the next flush.
+                // Newer entries may have filled the buffer meanwhile, in which
+                // case the oldest ones of this batch are dropped.
+                for (int i = events.size() - 1; i >= 0; i--) {
+                    if (!buffer.offerFirst(events.get(i))) {
+                        dropped.increment(i + 1);
+                        break;
+                    }
+                }
+                log.warn("Could not write {} workflow log entries", events.size(), e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.DocumentDTO;
+import com.university.fyp.dto.FileInfo;
+import com.university.fyp.entity.Document;
+import com.university.fyp.exception.PayloadTooLargeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for every document upload. Each upload runs in three phases so
+ * no database connection is held while file data moves:
+ * <ol>
+ * <li>validate group access, document status and deadline in a short
+ * read-only transaction;</li>
+ * <li>stage, hash and persist the content with no transaction open;</li>
+ * <li>record the document and version in a short write transaction.</li>
+ * </ol>
+ * If the last phase fails, content written by this upload is removed again.
+ */
+@Service
+public class DocumentUploadService {
+
+    private final DocumentService documentService;
+    private final BlobStorageService blobStorageService;
+    private final long maxFileSize;
+
+    private final Counter uploadedBytes;
+    private final Counter rejectedTooLarge;
+    private final Timer transferTimer;
+    private final DistributionSummary throughput;
+
+    public DocumentUploadService(DocumentService documentService,
+            BlobStorageService blobStorageService,
+            MeterRegistry meterRegistry,
+            @Value("${upload.max-file-size:524288000}") long maxFileSize) {
+        this.documentService = documentService;
+        this.blobStorageService = blobStorageService;
+        this.maxFileSize = maxFileSize;
+        this.uploadedBytes = Counter.builder("fyp.upload.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rejectedTooLarge = Counter.builder("fyp.upload.rejected")
+                .tag("reason", "too_large")
+                .register(meterRegistry);
+        this.transferTimer = Timer.builder("fyp.upload.transfer")
+                .description("Time spent receiving and staging upload bodies")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("fyp.upload.throughput")
+                .baseUnit("bytes/second")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Multipart upload. The container has already buffered the part; it is
+     * moved into the staging area and hashed there.
+     */
+    public DocumentDTO upload(Long groupId, String title, Document.DocumentType type, MultipartFile file,
+            String changeDescription, Long deadlineId) throws IOException {
+        documentService.validateUpload(groupId, type, deadlineId);
+
+        Path target = blobStorageService.newStagingFile();
+        BlobStorageService.Staged staged;
+        try {
+            file.transferTo(target);
+            staged = blobStorageService.stageFile(target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        uploadedBytes.increment(staged.size());
+
+        return complete(groupId, title, type, staged, FileInfo.of(file.getOriginalFilename(), file.getContentType()),
+                changeDescription, deadlineId);
+    }
+
+    /**
+     * Single-pass upload of a raw request body. The body is read once, hashed
+     * and written to the staging area as it arrives, with the size limit
+     * enforced on the fly. The body carries no name, so the client passes it
+     * separately and the type is guessed from it.
+     */
+    public DocumentDTO uploadStream(Long groupId, String title, Document.DocumentType type, InputStream body,
+            long contentLength, FileInfo file, String changeDescription, Long deadlineId) throws IOException {
+        // Reject declared oversize bodies before reading anything
+        if (contentLength > maxFileSize) {
+            rejectedTooLarge.increment();
+            throw new PayloadTooLargeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        documentService.validateUpload(groupId, type, deadlineId);
+
+        long started = System.nanoTime();
+        BlobStorageService.Staged staged;
+        try {
+            staged = blobStorageService.stage(body, maxFileSize);
+        } catch (PayloadTooLargeException e) {
+            rejectedTooLarge.increment();
+            throw e;
+        }
+        long elapsed = System.nanoTime() - started;
+
+        transferTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        uploadedBytes.increment(staged.size());
+        if (elapsed > 0) {
+            throughput.record(staged.size() * 1_000_000_000d / elapsed);
+        }
+
+        return complete(groupId, title, type, staged, file, changeDescription, deadlineId);
+    }
+
+    /**
+     * Records content that was assembled and hashed elsewhere, e.g. a committed
+     * chunked upload. The staged file is left in place if validation fails and
+     * consumed otherwise.
+     */
+    public DocumentDTO uploadStaged(Long groupId, String title, Document.DocumentType type,
+            BlobStorageService.Staged staged, FileInfo file, String changeDescription, Long deadlineId)
+            throws IOException {
+        documentService.validateUpload(groupId, type, deadlineId);
+        return complete(groupId, title, type, staged, file, changeDescription, deadlineId);
+    }
+
+    private DocumentDTO complete(Long groupId, String title, Document.DocumentType type,
+            BlobStorageService.Staged staged, FileInfo file, String changeDescription, Long deadlineId)
+            throws IOException {
+        BlobStorageService.Blob blob;
+        try {
+            blob = blobStorageService.persist(staged);
+        } finally {
+            // Normally already moved into storage
+            Files.deleteIfExists(staged.path());
+        }
+
+        boolean committed = false;
+        try {
+            DocumentDTO document = documentService.uploadDocument(groupId, title, type, blob, file,
+                    changeDescription, deadlineId);
+            committed = true;
+            return document;
+        } finally {
+            blobStorageService.finish(blob, committed);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.Document;
+import com.university.fyp.entity.Document.DocumentStatus;
+import com.university.fyp.entity.DocumentTransition.Operation;
+import com.university.fyp.entity.Group;
+import com.university.fyp.entity.Notification;
+import com.university.fyp.event.DocumentTransitionedEvent;
+import com.university.fyp.repository.DocumentRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The document status workflow as one table of allowed transitions. Each rule
+ * names the operation it belongs to, the from and to states, the roles that
+ * may make it and the side effects that follow. The table is indexed once at
+ * startup, so a lookup is three enum map reads.
+ *
+ * <p>
+ * Callers still check relationships the table cannot express, such as a
+ * supervisor owning the group, and write their own review or grade rows.
+ * Every status change goes through {@link #apply}, which makes the
+ * conditional update and publishes a {@link DocumentTransitionedEvent} for the
+ * transition log.
+ */
+@Component
+public class DocumentWorkflow {
+
+    public enum SideEffect {
+        STAMP_SUBMISSION, // Record submittedAt and whether it was late
+        NOTIFY_SUPERVISOR,
+        NOTIFY_GROUP
+    }
+
+    public record Rule(Operation operation, DocumentStatus from, DocumentStatus to, Set<String> roles,
+            Set<SideEffect> effects) {
+    }
+
+    private static final Set<String> STUDENT = Set.of("STUDENT");
+    private static final Set<String> SUPERVISOR = Set.of("SUPERVISOR");
+    private static final Set<String> COMMITTEE_MEMBER = Set.of("COMMITTEE_MEMBER");
+    private static final Set<String> REVIEWERS = Set.of("SUPERVISOR", "COMMITTEE_MEMBER");
+    private static final Set<String> STAFF = Set.of("SUPERVISOR", "COMMITTEE_MEMBER", "FYP_COMMITTEE");
+    private static final Set<String> GRADERS = Set.of("COMMITTEE_MEMBER", "FYP_COMMITTEE");
+
+    private static final List<Rule> RULES = List.of(
+            // A new upload reopens a draft or answers a revision request
+            rule(Operation.UPLOAD, DocumentStatus.DRAFT, DocumentStatus.DRAFT, STUDENT),
+            rule(Operation.UPLOAD, DocumentStatus.REVISION_REQUESTED, DocumentStatus.DRAFT, STUDENT),
+
+            rule(Operation.SUBMIT, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, STUDENT,
+                    SideEffect.STAMP_SUBMISSION, SideEffect.NOTIFY_SUPERVISOR),
+
+            rule(Operation.SET_STATUS, DocumentStatus.SUBMITTED, DocumentStatus.UNDER_REVIEW, STAFF,
+                    SideEffect.NOTIFY_GROUP),
+            rule(Operation.SET_STATUS, DocumentStatus.UNDER_REVIEW, DocumentStatus.APPROVED, STAFF,
+                    SideEffect.NOTIFY_GROUP),
+            rule(Operation.SET_STATUS, DocumentStatus.UNDER_REVIEW, DocumentStatus.REVISION_REQUESTED, STAFF,
+                    SideEffect.NOTIFY_GROUP),
+            rule(Operation.SET_STATUS, DocumentStatus.APPROVED, DocumentStatus.GRADED, STAFF,
+                    SideEffect.NOTIFY_GROUP),
+
+            // Review decisions: supervisors decide on submissions, the committee can send approved work back
+            rule(Operation.REVIEW, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, SUPERVISOR),
+            rule(Operation.REVIEW, DocumentStatus.SUBMITTED, DocumentStatus.REVISION_REQUESTED, SUPERVISOR),
+            rule(Operation.REVIEW, DocumentStatus.APPROVED, DocumentStatus.APPROVED, COMMITTEE_MEMBER),
+            rule(Operation.REVIEW, DocumentStatus.APPROVED, DocumentStatus.REVISION_REQUESTED, COMMITTEE_MEMBER),
+
+            // Reviews with comments, on anything submitted and not yet decided
+            rule(Operation.ADD_REVIEW, DocumentStatus.SUBMITTED, DocumentStatus.UNDER_REVIEW, REVIEWERS),
+            rule(Operation.ADD_REVIEW, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, REVIEWERS),
+            rule(Operation.ADD_REVIEW, DocumentStatus.SUBMITTED, DocumentStatus.REVISION_REQUESTED, REVIEWERS),
+            rule(Operation.ADD_REVIEW, DocumentStatus.UNDER_REVIEW, DocumentStatus.UNDER_REVIEW, REVIEWERS),
+            rule(Operation.ADD_REVIEW, DocumentStatus.UNDER_REVIEW, DocumentStatus.APPROVED, REVIEWERS),
+            rule(Operation.ADD_REVIEW, DocumentStatus.UNDER_REVIEW, DocumentStatus.REVISION_REQUESTED, REVIEWERS),
+
+            rule(Operation.GRADE, DocumentStatus.APPROVED, DocumentStatus.GRADED, GRADERS));
+
+    // Operation -> from -> to -> rule
+    private static final Map<Operation, Map<DocumentStatus, Map<DocumentStatus, Rule>>> TABLE = index(RULES);
+
+    private final DocumentRepository documentRepository;
+    private final NotificationService notificationService;
+    private final AuthService authService;
+    private final DeadlineCache deadlineCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DocumentWorkflow(DocumentRepository documentRepository,
+            NotificationService notificationService,
+            AuthService authService,
+            DeadlineCache deadlineCache,
+            ApplicationEventPublisher eventPublisher) {
+        this.documentRepository = documentRepository;
+        this.notificationService = notificationService;
+        this.authService = authService;
+        this.deadlineCache = deadlineCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Whether the table has a rule for moving a document in {@code from} to
+     * {@code to} through the operation, regardless of role.
+     */
+    public boolean allows(Operation operation, DocumentStatus from, DocumentStatus to) {
+        return find(operation, from, to) != null;
+    }
+
+    /**
+     * Moves the document to {@code newStatus} as the current user, failing if
+     * no rule allows it or the user's role is not listed. The status is
+     * changed with a conditional update, so a concurrent change surfaces as
+     * {@link com.university.fyp.exception.StatusConflictException}. Must run
+     * inside a transaction.
+     */
+    public Rule apply(Document document, Operation operation, DocumentStatus newStatus) {
+        AuthenticatedUser actor = authService.getCurrentPrincipal();
+        DocumentStatus from = document.getStatus();
+
+        Rule rule = find(operation, from, newStatus);
+        if (rule == null) {
+            throw new RuntimeException("Invalid status transition from " + from + " to " + newStatus);
+        }
+        if (!rule.roles().contains(actor.getRoleName())) {
+            throw new RuntimeException("You don't have permission to move a document from " + from + " to "
+                    + newStatus);
+        }
+
+        documentRepository.transition(document, newStatus);
+
+        Instant now = Instant.now();
+        for (SideEffect effect : rule.effects()) {
+            switch (effect) {
+                case STAMP_SUBMISSION -> stampSubmission(document, now);
+                case NOTIFY_SUPERVISOR -> notifySupervisor(document);
+                case NOTIFY_GROUP -> notifyGroupMembers(document, newStatus);
+            }
+        }
+
+        // Staying in the same state (e.g. overwriting a draft) is not logged
+        if (from != newStatus) {
+            Instant entered = document.getStatusChangedAt() != null
+                    ? document.getStatusChangedAt()
+                    : document.getCreatedAt();
+            Long durationMs = entered != null ? Duration.between(entered, now).toMillis() : null;
+            document.setStatusChangedAt(now);
+            eventPublisher.publishEvent(new DocumentTransitionedEvent(document.getId(), from, newStatus, operation,
+                    actor.getId(), durationMs, now));
+        }
+        return rule;
+    }
+
+    private Rule find(Operation operation, DocumentStatus from, DocumentStatus to) {
+        return TABLE.get(operation).getOrDefault(from, Map.of()).get(to);
+    }
+
+    private void stampSubmission(Document document, Instant now) {
+        document.setSubmittedAt(now);
+        if (document.getDeadline() != null) {
+            // The snapshot saves initializing the lazy deadline
+            boolean isLate = deadlineCache.find(document.getDeadline().getId())
+                    .map(deadline -> deadline.hasPassed(now))
+                    .orElseGet(() -> now.isAfter(document.getDeadline().getDueDate()));
+            document.setIsLate(isLate);
+        }
+    }
+
+    private void notifySupervisor(Document document) {
+        Group group = document.getGroup();
+        if (group.getSupervisor() != null) {
+            notificationService.createNotification(
+                    group.getSupervisor(),
+                    "New document submitted: " + document.getTitle() + " by " + group.getGroupName(),
+                    Notification.NotificationType.GENERAL,
+                    "Document",
+                    document.getId());
+        }
+    }
+
+    private void notifyGroupMembers(Document document, DocumentStatus newStatus) {
+        String message = String.format("Document '%s' status updated to %s",
+                document.getTitle(), newStatus);
+
+        Notification.NotificationType notificationType = switch (newStatus) {
+            case APPROVED -> Notification.NotificationType.DOCUMENT_APPROVED;
+            case REVISION_REQUESTED -> Notification.NotificationType.REVISION_REQUESTED;
+            default -> Notification.NotificationType.GENERAL;
+        };
+
+        notificationService.notifyGroupMembers(document.getGroup().getId(), message, notificationType, "Document",
+                document.getId());
+    }
+
+    private static Rule rule(Operation operation, DocumentStatus from, DocumentStatus to, Set<String> roles,
+            SideEffect... effects) {
+        Set<SideEffect> effectSet = EnumSet.noneOf(SideEffect.class);
+        effectSet.addAll(List.of(effects));
+        return new Rule(operation, from, to, roles, effectSet);
+    }
+
+    private static Map<Operation, Map<DocumentStatus, Map<DocumentStatus, Rule>>> index(List<Rule> rules) {
+        Map<Operation, Map<DocumentStatus, Map<DocumentStatus, Rule>>> table = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            table.put(operation, new EnumMap<>(DocumentStatus.class));
+        }
+        for (Rule rule : rules) {
+            Rule previous = table.get(rule.operation())
+                    .computeIfAbsent(rule.from(), from -> new EnumMap<>(DocumentStatus.class))
+                    .put(rule.to(), rule);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate workflow rule " + rule.operation() + " " + rule.from()
+                        + " -> " + rule.to());
+            }
+        }
+        return table;
+    }
+}
@@ -4,6 +4,8 @@ import com.university.fyp.entity.*;
 import com.university.fyp.repository.DocumentRepository;
 import com.university.fyp.repository.GradeRepository;
 import com.university.fyp.repository.GroupRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +21,14 @@ public class GradeService {
     private final DocumentRepository documentRepository;
     private final NotificationService notificationService;
     private final AuthService authService;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final DocumentWorkflow documentWorkflow;
 
     @Transactional
     public Grade assignGrade(Long groupId, Long documentId, BigDecimal score,
             String feedback, Boolean isFinal) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only committee members and FYP committee can assign grades
         if (!roleName.equals("COMMITTEE_MEMBER") && !roleName.equals("FYP_COMMITTEE")) {
@@ -46,8 +50,7 @@ public class GradeService {
 
             // Update document status to GRADED if final grade
             if (isFinal && document.getStatus() == Document.DocumentStatus.APPROVED) {
-                document.setStatus(Document.DocumentStatus.GRADED);
-                documentRepository.save(document);
+                documentWorkflow.apply(document, DocumentTransition.Operation.GRADE, Document.DocumentStatus.GRADED);
             }
         }
 
@@ -57,7 +60,7 @@ public class GradeService {
         grade.setScore(score);
         grade.setFeedback(feedback);
         grade.setIsFinal(isFinal);
-        grade.setGradedBy(currentUser);
+        grade.setGradedBy(authService.getCurrentUserReference());
 
         Grade savedGrade = gradeRepository.save(grade);
 
@@ -66,29 +69,24 @@ public class GradeService {
             String message = String.format("Final grade assigned: %.2f for %s",
                     score, document != null ? document.getTitle() : "Project");
 
-            group.getMembers().forEach(member -> notificationService.createNotification(
-                    member,
-                    message,
-                    Notification.NotificationType.GRADE_RELEASED,
-                    "Grade",
-                    savedGrade.getId()));
+            notificationService.notifyGroupMembers(group.getId(), message,
+                    Notification.NotificationType.GRADE_RELEASED, "Grade", savedGrade.getId());
         }
 
         return savedGrade;
     }
 
     public Grade getGradeById(Long gradeId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Grade grade = gradeRepository.findById(gradeId)
                 .orElseThrow(() -> new RuntimeException("Grade not found"));
 
         // Students can only see final grades for their own group
-        if (currentUser.getRole().getName().equals("STUDENT")) {
+        if (currentUser.getRoleName().equals("STUDENT")) {
             if (!grade.getIsFinal()) {
                 throw new RuntimeException("This grade is not yet finalized");
             }
-            if (currentUser.getGroup() == null ||
-                    !currentUser.getGroup().getId().equals(grade.getGroup().getId())) {
+            if (!groupAccessEvaluator.canAccessGroup(currentUser, grade.getGroup().getId())) {
                 throw new RuntimeException("You don't have permission to view this grade");
             }
         }
@@ -97,35 +95,31 @@ public class GradeService {
     }
 
     public java.util.List<Grade> getGradesByGroup(Long groupId) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
 
-        // Students can only see final grades for their own group
-        if (roleName.equals("STUDENT")) {
-            if (currentUser.getGroup() == null || !currentUser.getGroup().getId().equals(groupId)) {
-                throw new RuntimeException("You don't have permission to view grades for this group");
-            }
-            return gradeRepository.findFinalGradesByGroupId(groupId);
+        // Students see their own group, supervisors their supervised groups,
+        // committee members and FYP committee all groups
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, groupId)) {
+            throw new RuntimeException("You don't have permission to view grades for this group");
         }
 
-        // Supervisors can see all grades for their supervised groups
-        if (roleName.equals("SUPERVISOR")) {
-            if (group.getSupervisor() == null || !group.getSupervisor().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("You don't have permission to view grades for this group");
-            }
+        // Students can only see final grades
+        if (roleName.equals("STUDENT")) {
+            return gradeRepository.findFinalGradesByGroupId(groupId);
         }
 
-        // Committee members and FYP committee can see all grades
         return gradeRepository.findByGroupId(groupId);
     }
 
     @Transactional
     public void markGradeAsFinal(Long gradeId) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only FYP committee can mark grades as final
         if (!roleName.equals("FYP_COMMITTEE")) {
@@ -140,11 +134,7 @@ public class GradeService {
 
         // Notify group members
         String message = String.format("Final grade announced: %.2f", grade.getScore());
-        grade.getGroup().getMembers().forEach(member -> notificationService.createNotification(
-                member,
-                message,
-                Notification.NotificationType.GRADE_RELEASED,
-                "Grade",
-                savedGrade.getId()));
+        notificationService.notifyGroupMembers(grade.getGroup().getId(), message,
+                Notification.NotificationType.GRADE_RELEASED, "Grade", savedGrade.getId());
     }
 }
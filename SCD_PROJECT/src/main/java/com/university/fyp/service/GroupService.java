@@ -1,17 +1,25 @@
 package com.university.fyp.service;
 
 import com.university.fyp.dto.AddMemberRequest;
+import com.university.fyp.dto.CursorPage;
 import com.university.fyp.dto.GroupRequest;
 import com.university.fyp.dto.GroupResponse;
 import com.university.fyp.entity.Group;
 import com.university.fyp.entity.User;
+import com.university.fyp.event.GroupDeletedEvent;
 import com.university.fyp.repository.GroupRepository;
 import com.university.fyp.repository.UserRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,13 +29,16 @@ public class GroupService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPager keysetPager;
 
     @Transactional
     public Group createGroup(GroupRequest groupRequest) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can create groups
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can create groups");
         }
 
@@ -55,12 +66,12 @@ public class GroupService {
 
     @Transactional
     public Group updateGroup(Long groupId, GroupRequest groupRequest) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
         // Only FYP_COMMITTEE can update groups
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can update groups");
         }
 
@@ -80,6 +91,7 @@ public class GroupService {
             assignSupervisorToGroup(group, groupRequest.getSupervisorId());
         } else {
             // Remove supervisor if null is explicitly passed
+            groupAccessEvaluator.invalidate(group.getSupervisor());
             group.setSupervisor(null);
         }
 
@@ -91,12 +103,12 @@ public class GroupService {
     }
 
     public Group getGroupById(Long groupId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
         // Check access permissions
-        if (!canUserAccessGroup(currentUser, group)) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, group.getId())) {
             throw new RuntimeException("You don't have permission to view this group");
         }
 
@@ -110,12 +122,12 @@ public class GroupService {
     }
 
     public GroupResponse getGroupResponseById(Long groupId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
         // Check access permissions
-        if (!canUserAccessGroup(currentUser, group)) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, group.getId())) {
             throw new RuntimeException("You don't have permission to view this group");
         }
 
@@ -129,8 +141,8 @@ public class GroupService {
     }
 
     public List<Group> getAllGroups() {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // FYP_COMMITTEE can see all groups
         if (roleName.equals("FYP_COMMITTEE")) {
@@ -175,9 +187,9 @@ public class GroupService {
         }
 
         // STUDENT can see only their own group
-        if (roleName.equals("STUDENT") && currentUser.getGroup() != null) {
-            Group group = groupRepository.findById(currentUser.getGroup().getId())
-                    .orElse(currentUser.getGroup());
+        if (roleName.equals("STUDENT") && currentUser.getGroupId() != null) {
+            Group group = groupRepository.findById(currentUser.getGroupId())
+                    .orElseThrow(() -> new RuntimeException("Group not found"));
             // Trigger lazy loading
             if (group.getSupervisor() != null) {
                 group.getSupervisor().getId();
@@ -189,6 +201,35 @@ public class GroupService {
         return List.of();
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllGroupResponses()}, newest
+     * groups first.
+     */
+    public CursorPage<GroupResponse> getGroupResponsePage(String cursor, Integer limit) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
+        KeysetPager.Cursor position = keysetPager.decode(cursor);
+        int pageSize = keysetPager.limit(limit);
+
+        List<Long> ids;
+        if (roleName.equals("FYP_COMMITTEE") || roleName.equals("COMMITTEE_MEMBER")) {
+            ids = groupRepository.findPageIds(position.createdAt(), position.id(), keysetPager.probe(pageSize));
+        } else if (roleName.equals("SUPERVISOR")) {
+            ids = groupRepository.findPageIdsBySupervisorId(currentUser.getId(), position.createdAt(),
+                    position.id(), keysetPager.probe(pageSize));
+        } else {
+            // A student has at most one group, so there is nothing to page
+            return new CursorPage<>(getAllGroupResponses(), null, false);
+        }
+
+        // The batch load does not keep the page order
+        Map<Long, Group> groups = groupRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+        List<Group> rows = ids.stream().map(groups::get).filter(Objects::nonNull).toList();
+        return keysetPager.page(rows, pageSize, Group::getCreatedAt, Group::getId)
+                .map(GroupResponse::fromGroup);
+    }
+
     public List<GroupResponse> getAllGroupResponses() {
         List<Group> groups = getAllGroups();
         return groups.stream()
@@ -198,10 +239,10 @@ public class GroupService {
 
     @Transactional
     public void deleteGroup(Long groupId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can delete groups
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can delete groups");
         }
 
@@ -211,6 +252,7 @@ public class GroupService {
         // Dissociate members from the group before deletion
         List<User> members = userRepository.findByGroupId(groupId);
         for (User member : members) {
+            groupAccessEvaluator.invalidate(member);
             member.setGroup(null);
             userRepository.save(member);
         }
@@ -218,15 +260,18 @@ public class GroupService {
         // Ensure changes are written before group deletion
         userRepository.flush();
 
+        groupAccessEvaluator.invalidate(group.getSupervisor());
+
         groupRepository.delete(group);
+        eventPublisher.publishEvent(new GroupDeletedEvent(groupId));
     }
 
     @Transactional
     public Group addMemberToGroup(Long groupId, AddMemberRequest addMemberRequest) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can add members
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can add members to groups");
         }
 
@@ -261,6 +306,7 @@ public class GroupService {
         // Set the group relationship on the user (this updates the foreign key in users
         // table)
         user.setGroup(group);
+        groupAccessEvaluator.invalidate(user);
 
         // Save the user - this will update the group_id foreign key in the database
         userRepository.save(user);
@@ -285,10 +331,10 @@ public class GroupService {
 
     @Transactional
     public Group removeMemberFromGroup(Long groupId, Long userId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can remove members
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can remove members from groups");
         }
 
@@ -307,6 +353,7 @@ public class GroupService {
 
         // Remove the group relationship (set foreign key to null)
         user.setGroup(null);
+        groupAccessEvaluator.invalidate(user);
 
         // Save the user - this will set group_id to null in the database
         userRepository.save(user);
@@ -330,12 +377,12 @@ public class GroupService {
     }
 
     public List<User> getGroupMembers(Long groupId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
         // Check access permissions
-        if (!canUserAccessGroup(currentUser, group)) {
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, group.getId())) {
             throw new RuntimeException("You don't have permission to view this group's members");
         }
 
@@ -350,10 +397,10 @@ public class GroupService {
      */
     @Transactional
     public Group assignSupervisorToGroup(Long groupId, Long supervisorId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can assign supervisors
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can assign supervisors to groups");
         }
 
@@ -395,6 +442,8 @@ public class GroupService {
             throw new RuntimeException("Cannot assign inactive supervisor to group");
         }
 
+        groupAccessEvaluator.invalidate(group.getSupervisor());
+        groupAccessEvaluator.invalidate(supervisor);
         group.setSupervisor(supervisor);
     }
 
@@ -403,16 +452,17 @@ public class GroupService {
      */
     @Transactional
     public Group removeSupervisorFromGroup(Long groupId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Only FYP_COMMITTEE can remove supervisors
-        if (!currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getRoleName().equals("FYP_COMMITTEE")) {
             throw new RuntimeException("Only FYP Committee members can remove supervisors from groups");
         }
 
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
+        groupAccessEvaluator.invalidate(group.getSupervisor());
         group.setSupervisor(null);
 
         groupRepository.save(group);
@@ -430,25 +480,4 @@ public class GroupService {
 
         return savedGroup;
     }
-
-    private boolean canUserAccessGroup(User user, Group group) {
-        String roleName = user.getRole().getName();
-
-        // FYP_COMMITTEE and COMMITTEE_MEMBER can access all groups
-        if (roleName.equals("FYP_COMMITTEE") || roleName.equals("COMMITTEE_MEMBER")) {
-            return true;
-        }
-
-        // SUPERVISOR can access their supervised groups
-        if (roleName.equals("SUPERVISOR") && group.getSupervisor() != null) {
-            return group.getSupervisor().getId().equals(user.getId());
-        }
-
-        // STUDENT can access their own group
-        if (roleName.equals("STUDENT") && user.getGroup() != null) {
-            return user.getGroup().getId().equals(group.getId());
-        }
-
-        return false;
-    }
 }
@@ -0,0 +1,112 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.CursorPage;
+import com.university.fyp.exception.InvalidPageRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing for keyset pagination. Lists are ordered on (createdAt, id),
+ * newest first unless noted, and each page continues strictly after the last
+ * row of the previous one, so queries stay index range scans however deep the client
+ * pages and rows inserted meanwhile never shift or repeat entries.
+ */
+@Component
+public class KeysetPager {
+
+    // Later than any stored row; starts the first page
+    private static final Cursor FIRST = new Cursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    // Earlier than any stored row; starts the first page of an oldest-first list
+    private static final Cursor OLDEST_FIRST = new Cursor(Instant.EPOCH, 0L);
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public KeysetPager(@Value("${pagination.default-limit:20}") int defaultLimit,
+            @Value("${pagination.max-limit:100}") int maxLimit) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Position after the last row of a page: rows strictly older than
+     * createdAt, or equally old with a smaller id, come next (newer and
+     * larger for oldest-first lists).
+     */
+    public record Cursor(Instant createdAt, Long id) {
+    }
+
+    /**
+     * Reads a cursor returned with an earlier page.
+     *
+     * @throws InvalidPageRequestException if the token was not issued here
+     */
+    public Cursor decode(String token) {
+        return token == null || token.isBlank() ? FIRST : parse(token);
+    }
+
+    public Cursor decodeAscending(String token) {
+        return token == null || token.isBlank() ? OLDEST_FIRST : parse(token);
+    }
+
+    private Cursor parse(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three parts");
+            }
+            return new Cursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            // Bad Base64, numbers or an out-of-range instant all mean a tampered token
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Page size to use: pagination.default-limit when none is given, clamped
+     * to pagination.max-limit.
+     *
+     * @throws InvalidPageRequestException if the requested limit is not positive
+     */
+    public int limit(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested <= 0) {
+            throw new InvalidPageRequestException("Limit must be positive");
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    /**
+     * Fetches one row more than the page size, which tells whether another
+     * page follows without a count query.
+     */
+    public Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public <T> CursorPage<T> page(List<T> rows, int limit, Function<T, Instant> createdAt, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(items, encode(createdAt.apply(last), id.apply(last)), true);
+    }
+
+    private String encode(Instant createdAt, Long id) {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,49 @@
 package com.university.fyp.service;
 
+import com.university.fyp.dto.CursorPage;
 import com.university.fyp.entity.Notification;
 import com.university.fyp.entity.User;
 import com.university.fyp.repository.NotificationRepository;
-import lombok.RequiredArgsConstructor;
+import com.university.fyp.repository.UserRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class NotificationService {
 
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO notifications "
+            + "(user_id, message, type, is_read, related_entity_type, related_entity_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
     private final AuthService authService;
+    private final KeysetPager keysetPager;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public NotificationService(NotificationRepository notificationRepository,
+            UserRepository userRepository,
+            AuthService authService,
+            KeysetPager keysetPager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${notifications.batch-size:5000}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.authService = authService;
+        this.keysetPager = keysetPager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
 
     @Transactional
     public Notification createNotification(User user, String message,
@@ -31,24 +60,78 @@ public class NotificationService {
         return notificationRepository.save(notification);
     }
 
+    /**
+     * Sends the same notification to every user given, as batched JDBC
+     * inserts rather than one save per row (IDENTITY keys keep Hibernate from
+     * batching). With rewriteBatchedStatements each batch goes to MySQL as a
+     * single multi-row insert. Joins the caller's transaction.
+     */
+    @Transactional
+    public void createNotifications(Collection<Long> userIds, String message,
+            Notification.NotificationType type,
+            String relatedEntityType, Long relatedEntityId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, message);
+            ps.setString(3, type.name());
+            ps.setBoolean(4, false);
+            ps.setString(5, relatedEntityType);
+            if (relatedEntityId != null) {
+                ps.setLong(6, relatedEntityId);
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setTimestamp(7, now);
+        });
+    }
+
+    @Transactional
+    public void notifyGroupMembers(Long groupId, String message,
+            Notification.NotificationType type,
+            String relatedEntityType, Long relatedEntityId) {
+        createNotifications(userRepository.findIdsByGroupId(groupId), message, type, relatedEntityType,
+                relatedEntityId);
+    }
+
+    @Transactional
+    public void notifyRole(String roleName, String message,
+            Notification.NotificationType type,
+            String relatedEntityType, Long relatedEntityId) {
+        createNotifications(userRepository.findIdsByRoleName(roleName), message, type, relatedEntityType,
+                relatedEntityId);
+    }
+
     public List<Notification> getUserNotifications() {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
     }
 
+    public CursorPage<Notification> getUserNotificationPage(String cursor, Integer limit) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        KeysetPager.Cursor position = keysetPager.decode(cursor);
+        int pageSize = keysetPager.limit(limit);
+        List<Notification> rows = notificationRepository.findPageByUserId(currentUser.getId(), position.createdAt(),
+                position.id(), keysetPager.probe(pageSize));
+        return keysetPager.page(rows, pageSize, Notification::getCreatedAt, Notification::getId);
+    }
+
     public List<Notification> getUnreadNotifications() {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         return notificationRepository.findByUserIdAndIsRead(currentUser.getId(), false);
     }
 
     public Long getUnreadCount() {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         return notificationRepository.countByUserIdAndIsRead(currentUser.getId(), false);
     }
 
     @Transactional
     public Notification markAsRead(Long notificationId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
@@ -62,7 +145,7 @@ public class NotificationService {
 
     @Transactional
     public void markAllAsRead() {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         List<Notification> unreadNotifications = notificationRepository
                 .findByUserIdAndIsRead(currentUser.getId(), false);
 
@@ -72,7 +155,7 @@ public class NotificationService {
 
     @Transactional
     public void deleteNotification(Long notificationId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
@@ -85,7 +168,7 @@ public class NotificationService {
 
     @Transactional
     public void deleteAllNotifications() {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         notificationRepository.deleteByUserId(currentUser.getId());
     }
 }
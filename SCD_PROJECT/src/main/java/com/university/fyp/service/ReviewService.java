@@ -1,9 +1,14 @@
 package com.university.fyp.service;
 
+import com.university.fyp.dto.CursorPage;
 import com.university.fyp.entity.*;
+import com.university.fyp.event.ReviewCreatedEvent;
 import com.university.fyp.repository.DocumentRepository;
 import com.university.fyp.repository.ReviewRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +22,15 @@ public class ReviewService {
     private final DocumentRepository documentRepository;
     private final NotificationService notificationService;
     private final AuthService authService;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPager keysetPager;
+    private final DocumentWorkflow documentWorkflow;
 
     @Transactional
     public Review createReview(Long documentId, String comments, Review.ReviewStatus status) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only supervisors and committee members can create reviews
         if (!roleName.equals("SUPERVISOR") && !roleName.equals("COMMITTEE_MEMBER")) {
@@ -33,8 +42,7 @@ public class ReviewService {
 
         // Supervisors can only review documents from their supervised groups
         if (roleName.equals("SUPERVISOR")) {
-            if (document.getGroup().getSupervisor() == null ||
-                    !document.getGroup().getSupervisor().getId().equals(currentUser.getId())) {
+            if (!groupAccessEvaluator.supervises(currentUser, document.getGroup().getId())) {
                 throw new RuntimeException("You can only review documents from groups you supervise");
             }
         }
@@ -45,26 +53,24 @@ public class ReviewService {
             throw new RuntimeException("Document must be submitted before it can be reviewed");
         }
 
-        // Update document status based on review
-        if (document.getStatus() == Document.DocumentStatus.SUBMITTED) {
-            document.setStatus(Document.DocumentStatus.UNDER_REVIEW);
+        // Update document status based on review outcome, in one conditional
+        // update so concurrent reviews of the same submission cannot both pass
+        Document.DocumentStatus newStatus = Document.DocumentStatus.UNDER_REVIEW;
+        if (status == Review.ReviewStatus.APPROVED) {
+            newStatus = Document.DocumentStatus.APPROVED;
+        } else if (status == Review.ReviewStatus.REVISION_REQUESTED) {
+            newStatus = Document.DocumentStatus.REVISION_REQUESTED;
         }
+        documentWorkflow.apply(document, DocumentTransition.Operation.ADD_REVIEW, newStatus);
 
         Review review = new Review();
         review.setDocument(document);
-        review.setReviewer(currentUser);
+        review.setReviewer(authService.getCurrentUserReference());
         review.setComments(comments);
         review.setStatus(status);
 
         Review savedReview = reviewRepository.save(review);
-
-        // Update document status based on review outcome
-        if (status == Review.ReviewStatus.APPROVED) {
-            document.setStatus(Document.DocumentStatus.APPROVED);
-        } else if (status == Review.ReviewStatus.REVISION_REQUESTED) {
-            document.setStatus(Document.DocumentStatus.REVISION_REQUESTED);
-        }
-        documentRepository.save(document);
+        eventPublisher.publishEvent(new ReviewCreatedEvent(savedReview.getId()));
 
         // Notify group members
         String message = String.format("Review completed for '%s': %s",
@@ -73,12 +79,8 @@ public class ReviewService {
                 ? Notification.NotificationType.DOCUMENT_APPROVED
                 : Notification.NotificationType.REVISION_REQUESTED;
 
-        document.getGroup().getMembers().forEach(member -> notificationService.createNotification(
-                member,
-                message,
-                notificationType,
-                "Review",
-                savedReview.getId()));
+        notificationService.notifyGroupMembers(document.getGroup().getId(), message, notificationType, "Review",
+                savedReview.getId());
 
         // Notify supervisor if review is by committee and revision is requested
         if (roleName.equals("COMMITTEE_MEMBER") && status == Review.ReviewStatus.REVISION_REQUESTED) {
@@ -99,58 +101,52 @@ public class ReviewService {
     }
 
     public List<Review> getReviewsByDocument(Long documentId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
         // Check if user has permission to view reviews
-        String roleName = currentUser.getRole().getName();
-        if (roleName.equals("STUDENT")) {
-            if (currentUser.getGroup() == null ||
-                    !currentUser.getGroup().getId().equals(document.getGroup().getId())) {
-                throw new RuntimeException("You don't have permission to view reviews for this document");
-            }
-        } else if (roleName.equals("SUPERVISOR")) {
-            if (document.getGroup().getSupervisor() == null ||
-                    !document.getGroup().getSupervisor().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("You don't have permission to view reviews for this document");
-            }
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, document.getGroup().getId())) {
+            throw new RuntimeException("You don't have permission to view reviews for this document");
         }
 
         return reviewRepository.findByDocumentId(documentId);
     }
 
     public List<Review> getReviewsByReviewer(Long reviewerId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
 
         // Users can only see their own reviews unless they are committee members
-        if (!currentUser.getId().equals(reviewerId) &&
-                !currentUser.getRole().getName().equals("COMMITTEE_MEMBER") &&
-                !currentUser.getRole().getName().equals("FYP_COMMITTEE")) {
+        if (!currentUser.getId().equals(reviewerId) && !groupAccessEvaluator.isCommittee(currentUser)) {
             throw new RuntimeException("You don't have permission to view these reviews");
         }
 
         return reviewRepository.findByReviewerId(reviewerId);
     }
 
+    public CursorPage<Review> getReviewPageByReviewer(Long reviewerId, String cursor, Integer limit) {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+
+        // Users can only see their own reviews unless they are committee members
+        if (!currentUser.getId().equals(reviewerId) && !groupAccessEvaluator.isCommittee(currentUser)) {
+            throw new RuntimeException("You don't have permission to view these reviews");
+        }
+
+        KeysetPager.Cursor position = keysetPager.decode(cursor);
+        int pageSize = keysetPager.limit(limit);
+        List<Review> rows = reviewRepository.findPageByReviewerId(reviewerId, position.createdAt(), position.id(),
+                keysetPager.probe(pageSize));
+        return keysetPager.page(rows, pageSize, Review::getReviewedAt, Review::getId);
+    }
+
     public Review getReviewById(Long reviewId) {
-        User currentUser = authService.getCurrentUser();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
         // Check permissions
-        String roleName = currentUser.getRole().getName();
-        if (roleName.equals("STUDENT")) {
-            if (currentUser.getGroup() == null ||
-                    !currentUser.getGroup().getId().equals(review.getDocument().getGroup().getId())) {
-                throw new RuntimeException("You don't have permission to view this review");
-            }
-        } else if (roleName.equals("SUPERVISOR")) {
-            Group group = review.getDocument().getGroup();
-            if (group.getSupervisor() == null ||
-                    !group.getSupervisor().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("You don't have permission to view this review");
-            }
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, review.getDocument().getGroup().getId())) {
+            throw new RuntimeException("You don't have permission to view this review");
         }
 
         return review;
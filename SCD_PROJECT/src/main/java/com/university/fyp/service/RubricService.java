@@ -3,6 +3,7 @@ package com.university.fyp.service;
 import com.university.fyp.dto.*;
 import com.university.fyp.entity.*;
 import com.university.fyp.repository.*;
+import com.university.fyp.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,8 +26,8 @@ public class RubricService {
 
     @Transactional
     public RubricDTO createRubric(RubricRequest request) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only FYP_COMMITTEE can create rubrics
         if (!roleName.equals("FYP_COMMITTEE")) {
@@ -38,7 +39,7 @@ public class RubricService {
         rubric.setDescription(request.getDescription());
         rubric.setDocumentType(request.getDocumentType());
         rubric.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
-        rubric.setCreatedBy(currentUser);
+        rubric.setCreatedBy(authService.getCurrentUserReference());
 
         Rubric savedRubric = rubricRepository.save(rubric);
 
@@ -91,8 +92,8 @@ public class RubricService {
 
     @Transactional
     public RubricDTO updateRubric(Long id, RubricRequest request) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only FYP_COMMITTEE can update rubrics
         if (!roleName.equals("FYP_COMMITTEE")) {
@@ -131,8 +132,8 @@ public class RubricService {
 
     @Transactional
     public RubricGradeDTO assignRubricGrade(RubricGradeRequest request) {
-        User currentUser = authService.getCurrentUser();
-        String roleName = currentUser.getRole().getName();
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        String roleName = currentUser.getRoleName();
 
         // Only COMMITTEE_MEMBER and FYP_COMMITTEE can assign rubric grades
         if (!roleName.equals("COMMITTEE_MEMBER") && !roleName.equals("FYP_COMMITTEE")) {
@@ -177,7 +178,7 @@ public class RubricService {
         rubricGrade.setRubric(rubric);
         rubricGrade.setGroup(group);
         rubricGrade.setDocument(document);
-        rubricGrade.setGradedBy(currentUser);
+        rubricGrade.setGradedBy(authService.getCurrentUserReference());
         rubricGrade.setTotalScore(totalScore);
         rubricGrade.setOverallFeedback(request.getOverallFeedback());
         rubricGrade.setIsFinal(request.getIsFinal() != null ? request.getIsFinal() : false);
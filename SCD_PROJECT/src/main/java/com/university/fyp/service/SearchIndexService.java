@@ -0,0 +1,344 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.SearchHitDTO;
+import com.university.fyp.entity.Review;
+import com.university.fyp.event.DocumentTextExtractedEvent;
+import com.university.fyp.event.DocumentVersionStoredEvent;
+import com.university.fyp.event.GroupDeletedEvent;
+import com.university.fyp.event.ReviewCreatedEvent;
+import com.university.fyp.repository.DocumentRepository;
+import com.university.fyp.repository.ReviewRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Embedded Lucene index over document titles, extracted document text and
+ * review comments, kept on local disk under {@code search.index-dir}.
+ * Entries are updated from domain events after the originating transaction
+ * commits, on a single indexing thread; searches use a near-real-time reader
+ * and are filtered to the caller's groups inside the index.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+    private static final String KIND_DOCUMENT = "DOCUMENT";
+    private static final String KIND_REVIEW = "REVIEW";
+    private static final int SNIPPET_LENGTH = 200;
+
+    // Title matches rank above matches in body text or comments
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+            "title", 3f,
+            "body", 1f,
+            "comments", 1f);
+
+    private final DocumentRepository documentRepository;
+    private final ReviewRepository reviewRepository;
+    private final DocumentProcessor documentProcessor;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path indexDir;
+    private final int maxResults;
+    private final int rebuildBatchSize;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ThreadPoolExecutor indexer;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public SearchIndexService(DocumentRepository documentRepository,
+            ReviewRepository reviewRepository,
+            DocumentProcessor documentProcessor,
+            GroupAccessEvaluator groupAccessEvaluator,
+            AuthService authService,
+            TransactionTemplate transactionTemplate,
+            @Value("${search.index-dir:uploads/search-index}") String indexDir,
+            @Value("${search.max-results:50}") int maxResults,
+            @Value("${search.queue-capacity:1000}") int queueCapacity,
+            @Value("${search.rebuild-batch-size:200}") int rebuildBatchSize) {
+        this.documentRepository = documentRepository;
+        this.reviewRepository = reviewRepository;
+        this.documentProcessor = documentProcessor;
+        this.groupAccessEvaluator = groupAccessEvaluator;
+        this.authService = authService;
+        this.transactionTemplate = transactionTemplate;
+        this.indexDir = Paths.get(indexDir);
+        this.maxResults = maxResults;
+        this.rebuildBatchSize = rebuildBatchSize;
+        // A full queue makes the publisher index inline rather than drop the update
+        this.indexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(indexDir);
+        writer = new IndexWriter(FSDirectory.open(indexDir), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(30, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+    }
+
+    /**
+     * Builds the index from the database on first start, or after the index
+     * directory was removed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            indexer.execute(() -> indexSafely(this::rebuild));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVersionStored(DocumentVersionStoredEvent event) {
+        indexer.execute(() -> indexSafely(() -> indexDocument(event.documentId())));
+    }
+
+    // Published by pipeline workers, which run outside any transaction
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTextExtracted(DocumentTextExtractedEvent event) {
+        indexer.execute(() -> indexSafely(() -> indexDocument(event.documentId())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        indexer.execute(() -> indexSafely(() -> indexReview(event.reviewId())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGroupDeleted(GroupDeletedEvent event) {
+        indexer.execute(() -> indexSafely(() -> writer.deleteDocuments(LongPoint.newExactQuery("groupId",
+                event.groupId()))));
+    }
+
+    /**
+     * Matches the query against titles, document text and review comments.
+     * Supports the simple query syntax: quoted phrases, {@code -term},
+     * {@code prefix*} and {@code a | b}; terms are required by default.
+     */
+    public List<SearchHitDTO> search(String queryText, Integer limit) throws IOException {
+        if (queryText == null || queryText.isBlank()) {
+            throw new RuntimeException("Search query must not be empty");
+        }
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+        Set<Long> groupIds = groupAccessEvaluator.accessibleGroupIds(currentUser);
+        if (groupIds != null && groupIds.isEmpty()) {
+            return List.of();
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(queryText);
+        if (parsed == null) {
+            // Nothing left after analysis, e.g. only stop words
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(parsed, BooleanClause.Occur.MUST);
+        if (groupIds != null) {
+            query.add(LongPoint.newSetQuery("groupId", groupIds), BooleanClause.Occur.FILTER);
+        }
+
+        int count = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query.build(), count);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHitDTO> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                org.apache.lucene.document.Document stored = storedFields.document(scoreDoc.doc);
+                hits.add(new SearchHitDTO(
+                        stored.get("kind"),
+                        stored.getField("documentId").numericValue().longValue(),
+                        stored.getField("reviewId") != null
+                                ? stored.getField("reviewId").numericValue().longValue()
+                                : null,
+                        stored.getField("groupId").numericValue().longValue(),
+                        stored.get("title"),
+                        stored.get("documentType"),
+                        stored.get("snippet"),
+                        scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Makes indexed changes durable. Searches see them earlier, after each
+     * refresh; changes made since the last commit are lost if the node crashes
+     * and are restored by the next event for the same entry.
+     */
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:60000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    private void indexDocument(Long documentId) throws IOException {
+        org.apache.lucene.document.Document entry = transactionTemplate.execute(status ->
+                documentRepository.findById(documentId).map(this::toEntry).orElse(null));
+        Term key = new Term("key", KIND_DOCUMENT + "-" + documentId);
+        if (entry == null) {
+            writer.deleteDocuments(key);
+        } else {
+            writer.updateDocument(key, entry);
+        }
+    }
+
+    private void indexReview(Long reviewId) throws IOException {
+        org.apache.lucene.document.Document entry = transactionTemplate.execute(status ->
+                reviewRepository.findById(reviewId).map(this::toEntry).orElse(null));
+        if (entry != null) {
+            writer.updateDocument(new Term("key", KIND_REVIEW + "-" + reviewId), entry);
+        }
+    }
+
+    private void rebuild() throws IOException {
+        writer.deleteAll();
+        addInBatches(afterId -> documentRepository.findIndexBatch(afterId, PageRequest.of(0, rebuildBatchSize)),
+                com.university.fyp.entity.Document::getId, this::toEntry);
+        addInBatches(afterId -> reviewRepository.findIndexBatch(afterId, PageRequest.of(0, rebuildBatchSize)),
+                Review::getId, this::toEntry);
+        writer.commit();
+    }
+
+    /**
+     * Adds rows in id order, one batch at a time. Each batch is read in its own
+     * transaction, so its persistence context is discarded before the next one
+     * and memory use does not grow with the archive.
+     */
+    private <T> void addInBatches(Function<Long, List<T>> nextBatch, Function<T, Long> idOf,
+            Function<T, org.apache.lucene.document.Document> toEntry) throws IOException {
+        long cursor = 0L;
+        while (true) {
+            long afterId = cursor;
+            List<org.apache.lucene.document.Document> entries = new ArrayList<>(rebuildBatchSize);
+            Long lastId = transactionTemplate.execute(status -> {
+                List<T> rows = nextBatch.apply(afterId);
+                rows.forEach(row -> entries.add(toEntry.apply(row)));
+                return rows.isEmpty() ? null : idOf.apply(rows.get(rows.size() - 1));
+            });
+            if (lastId == null) {
+                return;
+            }
+            writer.addDocuments(entries);
+            cursor = lastId;
+        }
+    }
+
+    private org.apache.lucene.document.Document toEntry(com.university.fyp.entity.Document document) {
+        org.apache.lucene.document.Document entry = baseEntry(KIND_DOCUMENT, KIND_DOCUMENT + "-" + document.getId(),
+                document);
+        if (document.getContentHash() != null) {
+            documentProcessor.extractedText(document.getContentHash()).ifPresent(text -> {
+                try {
+                    entry.add(new TextField("body", Files.readString(text), Field.Store.NO));
+                } catch (IOException e) {
+                    // Searchable by title until the text can be read again
+                    log.warn("Could not read extracted text {}", text, e);
+                }
+            });
+        }
+        return entry;
+    }
+
+    private org.apache.lucene.document.Document toEntry(Review review) {
+        org.apache.lucene.document.Document entry = baseEntry(KIND_REVIEW, KIND_REVIEW + "-" + review.getId(),
+                review.getDocument());
+        entry.add(new StoredField("reviewId", review.getId()));
+        String comments = review.getComments() != null ? review.getComments() : "";
+        entry.add(new TextField("comments", comments, Field.Store.NO));
+        entry.add(new StoredField("snippet", comments.length() <= SNIPPET_LENGTH
+                ? comments
+                : comments.substring(0, SNIPPET_LENGTH) + "..."));
+        return entry;
+    }
+
+    private org.apache.lucene.document.Document baseEntry(String kind, String key,
+            com.university.fyp.entity.Document document) {
+        Long groupId = document.getGroup().getId();
+        org.apache.lucene.document.Document entry = new org.apache.lucene.document.Document();
+        entry.add(new StringField("key", key, Field.Store.NO));
+        entry.add(new StringField("kind", kind, Field.Store.YES));
+        entry.add(new StoredField("documentId", document.getId()));
+        entry.add(new LongPoint("groupId", groupId));
+        entry.add(new StoredField("groupId", groupId));
+        // Only document entries match on title; reviews just carry it for display
+        entry.add(kind.equals(KIND_DOCUMENT)
+                ? new TextField("title", document.getTitle(), Field.Store.YES)
+                : new StoredField("title", document.getTitle()));
+        entry.add(new StringField("documentType", document.getType().name(), Field.Store.YES));
+        return entry;
+    }
+
+    private void indexSafely(IndexTask task) {
+        try {
+            task.run();
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            log.warn("Search index update failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+}
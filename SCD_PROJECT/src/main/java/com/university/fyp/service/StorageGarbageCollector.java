@@ -0,0 +1,258 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.GarbageCollectionReport;
+import com.university.fyp.repository.DocumentRepository;
+import com.university.fyp.repository.StoredBlobRepository;
+import com.university.fyp.repository.VersionHistoryRepository;
+import com.university.fyp.storage.DocumentStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Mark-and-sweep collector for stored files. The mark phase collects every
+ * content hash and legacy file path referenced from {@code documents} and
+ * {@code version_history}; the sweep phase walks the storage backend, the
+ * {@code stored_blobs} table and the pre-blob upload directory and deletes
+ * whatever is unmarked and older than the grace period.
+ *
+ * <p>
+ * Reference counts are not trusted here, so drifted counts are repaired as a
+ * side effect. Each deletion re-checks the references with the blob's
+ * {@code stored_blobs} row locked and skips content an upload on any node
+ * claimed within the grace period, so runs on several nodes at once are safe.
+ * Deletions are spread over rate-limited batches.
+ */
+@Service
+public class StorageGarbageCollector {
+
+    private final DocumentStorage documentStorage;
+    private final BlobStorageService blobStorageService;
+    private final DocumentProcessor documentProcessor;
+    private final DocumentRepository documentRepository;
+    private final VersionHistoryRepository versionHistoryRepository;
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final Path legacyDir;
+    private final int sampleSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong garbageBytes = new AtomicLong();
+    private final Counter reclaimedBytes;
+    private final Counter reclaimedObjects;
+    private final Timer runTimer;
+
+    public StorageGarbageCollector(DocumentStorage documentStorage,
+            BlobStorageService blobStorageService,
+            DocumentProcessor documentProcessor,
+            DocumentRepository documentRepository,
+            VersionHistoryRepository versionHistoryRepository,
+            StoredBlobRepository storedBlobRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gc.enabled:true}") boolean enabled,
+            @Value("${gc.grace-period-ms:86400000}") long gracePeriodMillis,
+            @Value("${gc.batch-size:100}") int batchSize,
+            @Value("${gc.batch-pause-ms:1000}") long batchPauseMillis,
+            @Value("${gc.legacy-dir:uploads/documents}") String legacyDir,
+            @Value("${gc.report-sample-size:100}") int sampleSize) {
+        this.documentStorage = documentStorage;
+        this.blobStorageService = blobStorageService;
+        this.documentProcessor = documentProcessor;
+        this.documentRepository = documentRepository;
+        this.versionHistoryRepository = versionHistoryRepository;
+        this.storedBlobRepository = storedBlobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMillis);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.legacyDir = Paths.get(legacyDir).toAbsolutePath().normalize();
+        this.sampleSize = sampleSize;
+
+        this.reclaimedBytes = Counter.builder("fyp.gc.reclaimed.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.reclaimedObjects = Counter.builder("fyp.gc.reclaimed.objects")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("fyp.gc.run")
+                .description("Duration of a garbage collection run, including dry runs")
+                .register(meterRegistry);
+        Gauge.builder("fyp.gc.garbage.bytes", garbageBytes, AtomicLong::get)
+                .description("Unreferenced bytes found by the last run")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${gc.cron:0 30 3 * * *}")
+    public void scheduledRun() throws IOException {
+        if (enabled) {
+            collect(false);
+        }
+    }
+
+    /**
+     * Runs one collection. A dry run only reports what would be deleted.
+     */
+    public GarbageCollectionReport collect(boolean dryRun) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Garbage collection is already running");
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            return run(dryRun);
+        } finally {
+            sample.stop(runTimer);
+            running.set(false);
+        }
+    }
+
+    private GarbageCollectionReport run(boolean dryRun) throws IOException {
+        GarbageCollectionReport report = new GarbageCollectionReport();
+        report.setDryRun(dryRun);
+        report.setStartedAt(Instant.now());
+        Instant cutoff = report.getStartedAt().minus(gracePeriod);
+
+        // Mark
+        Set<String> referencedHashes = new HashSet<>();
+        Set<Path> referencedFiles = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            referencedHashes.addAll(documentRepository.findAllContentHashes());
+            referencedHashes.addAll(versionHistoryRepository.findAllContentHashes());
+            Stream.concat(documentRepository.findLegacyFilePaths().stream(),
+                    versionHistoryRepository.findLegacyFilePaths().stream())
+                    .map(path -> Paths.get(path).toAbsolutePath().normalize())
+                    .forEach(referencedFiles::add);
+        });
+        report.setReferencedObjects(referencedHashes.size() + referencedFiles.size());
+
+        // Unreferenced content, mapped to its size; rows without an object have size 0
+        Map<String, Long> garbage = new LinkedHashMap<>();
+        Set<String> storedKeys = new HashSet<>();
+        documentStorage.forEachKey(key -> {
+            // Plain and compressed copies of the same content are collected together
+            String contentHash = BlobStorageService.contentHashOf(key.key());
+            storedKeys.add(contentHash);
+            report.setScannedObjects(report.getScannedObjects() + 1);
+            report.setScannedBytes(report.getScannedBytes() + key.size());
+            if (!referencedHashes.contains(contentHash) && key.lastModified().isBefore(cutoff)) {
+                garbage.merge(contentHash, key.size(), Long::sum);
+            }
+        });
+        for (String contentHash : storedBlobRepository.findAllContentHashes()) {
+            if (!referencedHashes.contains(contentHash) && !storedKeys.contains(contentHash)) {
+                garbage.put(contentHash, 0L);
+            }
+        }
+        Map<Path, Long> legacyGarbage = findLegacyGarbage(referencedFiles, cutoff, report);
+
+        report.setCandidateObjects(garbage.size() + legacyGarbage.size());
+        report.setCandidateBytes(garbage.values().stream().mapToLong(Long::longValue).sum()
+                + legacyGarbage.values().stream().mapToLong(Long::longValue).sum());
+        Stream.concat(garbage.keySet().stream(), legacyGarbage.keySet().stream().map(Path::toString))
+                .limit(sampleSize)
+                .forEach(report.getSample()::add);
+        garbageBytes.set(report.getCandidateBytes());
+
+        if (!dryRun) {
+            sweep(garbage, legacyGarbage, cutoff, report);
+        }
+        report.setFinishedAt(Instant.now());
+        return report;
+    }
+
+    private Map<Path, Long> findLegacyGarbage(Set<Path> referencedFiles, Instant cutoff,
+            GarbageCollectionReport report) throws IOException {
+        Map<Path, Long> legacyGarbage = new LinkedHashMap<>();
+        if (!Files.isDirectory(legacyDir)) {
+            return legacyGarbage;
+        }
+        try (Stream<Path> files = Files.list(legacyDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                report.setScannedObjects(report.getScannedObjects() + 1);
+                report.setScannedBytes(report.getScannedBytes() + attributes.size());
+                if (!referencedFiles.contains(file.toAbsolutePath().normalize())
+                        && attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    legacyGarbage.put(file, attributes.size());
+                }
+            }
+        }
+        return legacyGarbage;
+    }
+
+    private void sweep(Map<String, Long> garbage, Map<Path, Long> legacyGarbage, Instant cutoff,
+            GarbageCollectionReport report) throws IOException {
+        int inBatch = 0;
+        for (Map.Entry<String, Long> entry : garbage.entrySet()) {
+            String contentHash = entry.getKey();
+            // A document may have started using the content since the mark phase
+            boolean deleted = blobStorageService.sweep(contentHash, cutoff,
+                    () -> !documentRepository.existsByContentHash(contentHash)
+                            && !versionHistoryRepository.existsByContentHash(contentHash));
+            if (deleted) {
+                documentProcessor.deleteOutputs(contentHash);
+                reclaimed(entry.getValue(), report);
+            } else {
+                report.setSkippedObjects(report.getSkippedObjects() + 1);
+            }
+            inBatch = pauseAfterBatch(inBatch + 1);
+        }
+
+        // Legacy paths are never written again, so they cannot become referenced
+        for (Map.Entry<Path, Long> entry : legacyGarbage.entrySet()) {
+            if (Files.deleteIfExists(entry.getKey())) {
+                reclaimed(entry.getValue(), report);
+            }
+            inBatch = pauseAfterBatch(inBatch + 1);
+        }
+    }
+
+    private void reclaimed(long bytes, GarbageCollectionReport report) {
+        report.setReclaimedObjects(report.getReclaimedObjects() + 1);
+        report.setReclaimedBytes(report.getReclaimedBytes() + bytes);
+        reclaimedObjects.increment();
+        reclaimedBytes.increment(bytes);
+    }
+
+    // Keeps the collector from saturating the disk or the object store
+    private int pauseAfterBatch(int inBatch) {
+        if (inBatch < batchSize) {
+            return inBatch;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Garbage collection interrupted");
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,232 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.DocumentDTO;
+import com.university.fyp.dto.FileInfo;
+import com.university.fyp.dto.UploadSessionRequest;
+import com.university.fyp.dto.UploadSessionResponse;
+import com.university.fyp.entity.UploadChunk;
+import com.university.fyp.entity.UploadSession;
+import com.university.fyp.exception.PayloadTooLargeException;
+import com.university.fyp.repository.UploadChunkRepository;
+import com.university.fyp.repository.UploadSessionRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for files larger than the multipart limit. A session
+ * pre-sizes a file in the blob store's staging area; each chunk is written directly at
+ * its offset, so chunks can arrive in any order and retries only resend what
+ * is missing. Committing moves the file into blob storage via
+ * {@link DocumentUploadService}.
+ */
+@Service
+public class UploadSessionService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final DocumentUploadService documentUploadService;
+    private final BlobStorageService blobStorageService;
+    private final AuthService authService;
+    private final GroupAccessEvaluator groupAccessEvaluator;
+    private final TransactionTemplate transactionTemplate;
+    private final Path sessionDir;
+    private final int chunkSize;
+    private final long maxFileSize;
+    private final Duration sessionTtl;
+
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository,
+            UploadChunkRepository uploadChunkRepository,
+            DocumentUploadService documentUploadService,
+            BlobStorageService blobStorageService,
+            AuthService authService,
+            GroupAccessEvaluator groupAccessEvaluator,
+            TransactionTemplate transactionTemplate,
+            @Value("${upload.chunk-size:5242880}") int chunkSize,
+            @Value("${upload.max-file-size:524288000}") long maxFileSize,
+            @Value("${upload.session-ttl-hours:24}") long sessionTtlHours) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadChunkRepository = uploadChunkRepository;
+        this.documentUploadService = documentUploadService;
+        this.blobStorageService = blobStorageService;
+        this.authService = authService;
+        this.groupAccessEvaluator = groupAccessEvaluator;
+        this.transactionTemplate = transactionTemplate;
+        // Staging area of the blob store, so committing to local storage is a rename
+        this.sessionDir = blobStorageService.stagingDir().resolve("sessions");
+        this.chunkSize = chunkSize;
+        this.maxFileSize = maxFileSize;
+        this.sessionTtl = Duration.ofHours(sessionTtlHours);
+    }
+
+    @Transactional
+    public UploadSessionResponse createSession(UploadSessionRequest request) throws IOException {
+        AuthenticatedUser currentUser = authService.getCurrentPrincipal();
+
+        if (!groupAccessEvaluator.canAccessGroup(currentUser, request.getGroupId())) {
+            throw new RuntimeException("You don't have permission to upload documents for this group");
+        }
+        if (request.getTotalSize() > maxFileSize) {
+            throw new PayloadTooLargeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(currentUser.getId());
+        session.setGroupId(request.getGroupId());
+        session.setTitle(request.getTitle());
+        session.setType(request.getType());
+        session.setChangeDescription(request.getChangeDescription());
+        session.setDeadlineId(request.getDeadlineId());
+        FileInfo fileInfo = FileInfo.of(request.getFileName(), request.getContentType());
+        session.setOriginalFilename(fileInfo.fileName());
+        session.setContentType(fileInfo.contentType());
+        session.setTotalSize(request.getTotalSize());
+        session.setChunkSize(chunkSize);
+        session.setExpectedHash(request.getSha256() != null ? request.getSha256().toLowerCase() : null);
+        session.setExpiresAt(Instant.now().plus(sessionTtl));
+
+        Files.createDirectories(sessionDir);
+        try (RandomAccessFile file = new RandomAccessFile(pathFor(session.getId()).toFile(), "rw")) {
+            file.setLength(session.getTotalSize());
+        }
+
+        return UploadSessionResponse.fromSession(uploadSessionRepository.save(session), List.of());
+    }
+
+    public UploadSessionResponse getSession(String sessionId) {
+        UploadSession session = getOwnSession(sessionId);
+        return UploadSessionResponse.fromSession(session, uploadChunkRepository.findChunkIndexes(sessionId));
+    }
+
+    /**
+     * Writes one chunk at the given offset. The offset must be a multiple of the
+     * session's chunk size and the body exactly one chunk long (shorter only
+     * for the last chunk). Re-sending a chunk overwrites it with the same bytes.
+     */
+    public UploadSessionResponse writeChunk(String sessionId, long offset, InputStream body) throws IOException {
+        UploadSession session = getOwnSession(sessionId);
+
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new RuntimeException("Offset must be a multiple of " + session.getChunkSize()
+                    + " within the file");
+        }
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(pathFor(sessionId), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            byte[] bytes = buffer.array();
+            int read;
+            while ((read = body.read(bytes)) != -1) {
+                if (written + read > expectedLength) {
+                    throw new RuntimeException("Chunk is larger than " + expectedLength + " bytes");
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, offset + written);
+                }
+            }
+        }
+        if (written != expectedLength) {
+            throw new RuntimeException("Incomplete chunk: expected " + expectedLength + " bytes, got " + written);
+        }
+
+        if (!uploadChunkRepository.existsBySessionIdAndChunkIndex(sessionId, chunkIndex)) {
+            try {
+                uploadChunkRepository.save(new UploadChunk(null, sessionId, chunkIndex));
+            } catch (DataIntegrityViolationException e) {
+                // Recorded concurrently by a retry of the same chunk
+            }
+        }
+
+        return UploadSessionResponse.fromSession(session, uploadChunkRepository.findChunkIndexes(sessionId));
+    }
+
+    /**
+     * Creates the document version once every chunk has arrived. Not
+     * transactional: the assembled file is hashed and handed to storage with
+     * no connection held, and the session rows are removed afterwards.
+     */
+    public DocumentDTO commit(String sessionId) throws IOException {
+        UploadSession session = getOwnSession(sessionId);
+
+        long received = uploadChunkRepository.countBySessionId(sessionId);
+        if (received < session.getTotalChunks()) {
+            throw new RuntimeException("Upload incomplete: " + received + " of " + session.getTotalChunks()
+                    + " chunks received");
+        }
+
+        Path file = pathFor(sessionId);
+        BlobStorageService.Staged staged = blobStorageService.stageFile(file);
+        if (session.getExpectedHash() != null && !session.getExpectedHash().equals(staged.contentHash())) {
+            throw new RuntimeException("Uploaded content does not match the expected SHA-256");
+        }
+
+        try {
+            return documentUploadService.uploadStaged(session.getGroupId(), session.getTitle(),
+                    session.getType(), staged, new FileInfo(session.getOriginalFilename(), session.getContentType()),
+                    session.getChangeDescription(), session.getDeadlineId());
+        } finally {
+            // Once the file has been handed to storage the session cannot be committed again
+            if (!Files.exists(file)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    uploadChunkRepository.deleteBySessionId(sessionId);
+                    uploadSessionRepository.deleteById(sessionId);
+                });
+            }
+        }
+    }
+
+    @Transactional
+    public void abort(String sessionId) throws IOException {
+        delete(getOwnSession(sessionId));
+    }
+
+    @Scheduled(fixedDelayString = "${upload.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpiredSessions() throws IOException {
+        for (UploadSession session : uploadSessionRepository.findByExpiresAtBefore(Instant.now())) {
+            delete(session);
+        }
+    }
+
+    private void delete(UploadSession session) throws IOException {
+        uploadChunkRepository.deleteBySessionId(session.getId());
+        uploadSessionRepository.delete(session);
+        Files.deleteIfExists(pathFor(session.getId()));
+    }
+
+    private UploadSession getOwnSession(String sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .filter(s -> s.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new RuntimeException("Upload session not found"));
+        if (!session.getUserId().equals(authService.getCurrentPrincipal().getId())) {
+            throw new RuntimeException("Upload session not found");
+        }
+        return session;
+    }
+
+    private Path pathFor(String sessionId) {
+        return sessionDir.resolve(sessionId + ".part");
+    }
+}
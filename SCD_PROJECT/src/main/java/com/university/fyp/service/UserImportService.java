@@ -0,0 +1,303 @@
+package com.university.fyp.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.fyp.dto.UserImportResult;
+import com.university.fyp.dto.UserImportResult.RowResult;
+import com.university.fyp.dto.UserImportResult.RowStatus;
+import com.university.fyp.dto.UserImportRow;
+import com.university.fyp.entity.Role;
+import com.university.fyp.repository.RoleRepository;
+import com.university.fyp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user onboarding from a CSV or JSON stream. Rows are processed in chunks:
+ * one existence query per chunk, BCrypt spread over a bounded worker pool, and
+ * a single JDBC batch insert.
+ */
+@Service
+public class UserImportService {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final String DEFAULT_ROLE = "STUDENT";
+    private static final String INSERT_USER_SQL = "INSERT INTO users "
+            + "(email, password, full_name, role_id, is_active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashingExecutor;
+    private final int batchSize;
+
+    public UserImportService(UserRepository userRepository,
+            RoleRepository roleRepository,
+            PasswordEncoder passwordEncoder,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${user-import.batch-size:500}") int batchSize,
+            @Value("${user-import.hash-threads:4}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        // Bounded queue with caller-runs so a large import cannot queue unbounded work
+        this.hashingExecutor = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(batchSize), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    public UserImportResult importUsers(InputStream input, String contentType) throws IOException {
+        Map<String, Long> roleIds = roleRepository.findAll().stream()
+                .collect(Collectors.toMap(Role::getName, Role::getId));
+
+        UserImportResult result = new UserImportResult();
+        Set<String> seenEmails = new HashSet<>();
+        List<NumberedRow> chunk = new ArrayList<>(batchSize);
+
+        Consumer<NumberedRow> collector = row -> {
+            chunk.add(row);
+            if (chunk.size() >= batchSize) {
+                processChunk(chunk, roleIds, seenEmails, result);
+                chunk.clear();
+            }
+        };
+
+        if (contentType != null && contentType.contains("json")) {
+            readJson(input, collector);
+        } else {
+            readCsv(input, collector);
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, roleIds, seenEmails, result);
+        }
+
+        return result;
+    }
+
+    private void processChunk(List<NumberedRow> rows, Map<String, Long> roleIds, Set<String> seenEmails,
+            UserImportResult result) {
+        RowResult[] outcomes = new RowResult[rows.size()];
+        List<Integer> candidates = new ArrayList<>();
+
+        // Validate rows and drop duplicates within the import itself
+        for (int i = 0; i < rows.size(); i++) {
+            NumberedRow row = rows.get(i);
+            String error = validate(row.data(), roleIds);
+            if (error != null) {
+                outcomes[i] = new RowResult(row.number(), row.data().getEmail(), RowStatus.FAILED, error);
+            } else if (!seenEmails.add(row.data().getEmail().toLowerCase())) {
+                outcomes[i] = new RowResult(row.number(), row.data().getEmail(), RowStatus.SKIPPED,
+                        "Duplicate email in import");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // One set-based existence check for the whole chunk
+        if (!candidates.isEmpty()) {
+            List<String> emails = candidates.stream().map(i -> rows.get(i).data().getEmail()).toList();
+            Set<String> existing = userRepository.findExistingEmails(emails).stream()
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+            candidates.removeIf(i -> {
+                NumberedRow row = rows.get(i);
+                if (existing.contains(row.data().getEmail().toLowerCase())) {
+                    outcomes[i] = new RowResult(row.number(), row.data().getEmail(), RowStatus.SKIPPED,
+                            "Email already exists");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!candidates.isEmpty()) {
+            List<CompletableFuture<String>> hashes = candidates.stream()
+                    .map(i -> CompletableFuture.supplyAsync(
+                            () -> passwordEncoder.encode(rows.get(i).data().getPassword()), hashingExecutor))
+                    .toList();
+
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(candidates.size());
+            for (int c = 0; c < candidates.size(); c++) {
+                UserImportRow data = rows.get(candidates.get(c)).data();
+                batch.add(new Object[] { data.getEmail(), hashes.get(c).join(), data.getFullName(),
+                        roleIds.get(roleName(data)), true, now, now });
+            }
+
+            insert(rows, candidates, batch, outcomes);
+        }
+
+        for (RowResult outcome : outcomes) {
+            result.add(outcome);
+        }
+    }
+
+    private void insert(List<NumberedRow> rows, List<Integer> candidates, List<Object[]> batch,
+            RowResult[] outcomes) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, batch));
+            for (Integer i : candidates) {
+                outcomes[i] = new RowResult(rows.get(i).number(), rows.get(i).data().getEmail(),
+                        RowStatus.CREATED, null);
+            }
+        } catch (DataAccessException e) {
+            // Something in the batch was rejected (e.g. an email registered concurrently);
+            // fall back to row-by-row inserts so every row gets its own outcome
+            for (int c = 0; c < candidates.size(); c++) {
+                int i = candidates.get(c);
+                NumberedRow row = rows.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_USER_SQL, batch.get(c));
+                    outcomes[i] = new RowResult(row.number(), row.data().getEmail(), RowStatus.CREATED, null);
+                } catch (DataAccessException rowError) {
+                    outcomes[i] = new RowResult(row.number(), row.data().getEmail(), RowStatus.FAILED,
+                            rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private String validate(UserImportRow row, Map<String, Long> roleIds) {
+        if (row.getEmail() == null || !EMAIL_PATTERN.matcher(row.getEmail().trim()).matches()) {
+            return "Email should be valid";
+        }
+        row.setEmail(row.getEmail().trim());
+        if (row.getEmail().length() > 100) {
+            return "Email is too long";
+        }
+        if (row.getFullName() == null || row.getFullName().isBlank()) {
+            return "Full name is required";
+        }
+        row.setFullName(row.getFullName().trim());
+        if (row.getPassword() == null || row.getPassword().length() < 6) {
+            return "Password must be at least 6 characters";
+        }
+        if (!roleIds.containsKey(roleName(row))) {
+            return "Role not found: " + row.getRole();
+        }
+        return null;
+    }
+
+    private String roleName(UserImportRow row) {
+        return row.getRole() == null || row.getRole().isBlank()
+                ? DEFAULT_ROLE
+                : row.getRole().trim().toUpperCase();
+    }
+
+    private void readJson(InputStream input, Consumer<NumberedRow> collector) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of users");
+            }
+            int number = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                collector.accept(new NumberedRow(++number, objectMapper.readValue(parser, UserImportRow.class)));
+            }
+        }
+    }
+
+    private void readCsv(InputStream input, Consumer<NumberedRow> collector) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+
+        // Map header names to column positions so column order does not matter
+        List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase().replace("_", ""), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("fullname") || !columns.containsKey("password")) {
+            throw new RuntimeException("CSV header must contain email, fullName and password columns");
+        }
+
+        int number = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            collector.accept(new NumberedRow(++number, new UserImportRow(
+                    column(values, columns.get("email")),
+                    column(values, columns.get("fullname")),
+                    column(values, columns.get("password")),
+                    column(values, columns.get("role")))));
+        }
+    }
+
+    private String column(List<String> values, Integer index) {
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record NumberedRow(int number, UserImportRow data) {
+    }
+}
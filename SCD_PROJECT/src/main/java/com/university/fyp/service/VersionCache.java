@@ -0,0 +1,180 @@
+package com.university.fyp.service;
+
+import com.university.fyp.storage.OpenFileStoredObject;
+import com.university.fyp.storage.StoredObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Small LRU cache of decompressed versions on local disk, bounded by total
+ * size, so downloads of a recently requested old version keep Range support
+ * without inflating the file again. Cached files are opened under the cache
+ * lock and handed out as open files, so a download in progress is not cut
+ * short when its entry is evicted or removed.
+ */
+@Component
+public class VersionCache {
+
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    // Content hash -> size, in access order; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    public VersionCache(MeterRegistry meterRegistry,
+            @Value("${storage.version-cache.dir:uploads/version-cache}") String cacheDir,
+            @Value("${storage.version-cache.max-bytes:1073741824}") long maxBytes) throws IOException {
+        this.cacheDir = Paths.get(cacheDir);
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("fyp.version.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("fyp.version.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("fyp.version.rebuild")
+                .description("Time spent decompressing an old version")
+                .register(meterRegistry);
+        Gauge.builder("fyp.version.cache.size", this, cache -> cache.currentBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        loadExisting();
+    }
+
+    /**
+     * Returns the decompressed content, rebuilding it from the compressed
+     * object on a miss.
+     */
+    public StoredObject get(String contentHash, StoredObject compressed) throws IOException {
+        Path cached = cacheDir.resolve(contentHash);
+        synchronized (this) {
+            Long size = entries.get(contentHash);
+            if (size != null) {
+                try {
+                    StoredObject object = new OpenFileStoredObject(FileChannel.open(cached, StandardOpenOption.READ),
+                            size);
+                    hits.increment();
+                    return object;
+                } catch (NoSuchFileException e) {
+                    // Deleted behind the cache's back; rebuild it
+                    entries.remove(contentHash);
+                    totalBytes -= size;
+                }
+            }
+        }
+
+        misses.increment();
+        Files.createDirectories(cacheDir);
+        Path temp = Files.createTempFile(cacheDir, "rebuild-", ".part");
+        try {
+            long started = System.nanoTime();
+            try (InputStream in = new InflaterInputStream(compressed.open(0, compressed.size()))) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            // Concurrent rebuilds of the same version produce identical files
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        synchronized (this) {
+            FileChannel channel = FileChannel.open(cached, StandardOpenOption.READ);
+            long size = channel.size();
+            Long previous = entries.put(contentHash, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evict(contentHash);
+            return new OpenFileStoredObject(channel, size);
+        }
+    }
+
+    /**
+     * Drops a cached version, e.g. when its content has been deleted.
+     */
+    public synchronized void remove(String contentHash) throws IOException {
+        Long size = entries.remove(contentHash);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        Files.deleteIfExists(cacheDir.resolve(contentHash));
+    }
+
+    private synchronized long currentBytes() {
+        return totalBytes;
+    }
+
+    // Oldest entries go first; the one just added is kept even if it alone is over the limit
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(cacheDir.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            totalBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    // Files rebuilt before a restart stay usable, least recently modified first
+    private void loadExisting() throws IOException {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files
+                    .sorted(Comparator.comparing(this::lastModified))::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".part")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                long size = Files.size(file);
+                entries.put(name, size);
+                totalBytes += size;
+            }
+        }
+        evict(null);
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
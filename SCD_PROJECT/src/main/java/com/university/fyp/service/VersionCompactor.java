@@ -0,0 +1,98 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.StoredBlob;
+import com.university.fyp.repository.StoredBlobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compresses content that is only referenced by older versions. Such content
+ * is rarely downloaded, so it is stored deflated and rebuilt on demand through
+ * the {@link VersionCache}; current versions are never touched.
+ */
+@Service
+public class VersionCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionCompactor.class);
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final BlobStorageService blobStorageService;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final long minSize;
+    private final int batchSize;
+    private final double maxRatio;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter savedBytes;
+    private final Counter compacted;
+
+    public VersionCompactor(StoredBlobRepository storedBlobRepository,
+            BlobStorageService blobStorageService,
+            MeterRegistry meterRegistry,
+            @Value("${storage.compaction.enabled:true}") boolean enabled,
+            @Value("${storage.compaction.min-age-ms:604800000}") long minAgeMillis,
+            @Value("${storage.compaction.min-size-bytes:65536}") long minSize,
+            @Value("${storage.compaction.batch-size:50}") int batchSize,
+            @Value("${storage.compaction.max-ratio:0.9}") double maxRatio) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.blobStorageService = blobStorageService;
+        this.enabled = enabled;
+        this.minAge = Duration.ofMillis(minAgeMillis);
+        this.minSize = minSize;
+        this.batchSize = batchSize;
+        this.maxRatio = maxRatio;
+        this.savedBytes = Counter.builder("fyp.storage.compaction.saved.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.compacted = Counter.builder("fyp.storage.compaction.objects")
+                .description("Stored files replaced by a compressed copy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handles one batch per run, so a large backlog is worked off gradually
+     * instead of in one long burst of I/O.
+     */
+    @Scheduled(fixedDelayString = "${storage.compaction.interval-ms:600000}")
+    public void compactBatch() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<StoredBlob> candidates = storedBlobRepository.findCompactionCandidates(
+                    Instant.now().minus(minAge), minSize, PageRequest.of(0, batchSize));
+            for (StoredBlob blob : candidates) {
+                compact(blob);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void compact(StoredBlob blob) {
+        try {
+            // Written before the row is marked, so a crash in between just redoes the check
+            long storedSize = blobStorageService.compress(blob.getContentHash(), maxRatio);
+            storedBlobRepository.markCompacted(blob.getContentHash(), storedSize, Instant.now());
+            if (storedSize < blob.getSizeBytes()) {
+                compacted.increment();
+                savedBytes.increment(blob.getSizeBytes() - storedSize);
+            }
+        } catch (Exception e) {
+            // Left uncompressed and picked up again by a later run
+            log.warn("Could not compact {}", blob.getContentHash(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.university.fyp.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Backend that holds uploaded document content. Keys are content hashes,
+ * optionally followed by a variant suffix (e.g. {@code <hash>.z} for a
+ * compressed copy), so an object is never modified once written. The active
+ * implementation is chosen with {@code storage.backend}.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Stores a staged local file under the key, unless the key already exists.
+     * The staged file is consumed either way.
+     *
+     * @return true if this call wrote the object, false if it already existed
+     */
+    boolean put(String key, Path stagedFile) throws IOException;
+
+    Optional<StoredObject> find(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Visits every stored key. Used by the garbage collector, so it may be slow
+     * but must not load the whole listing into memory at once.
+     */
+    void forEachKey(Consumer<StoredKey> action) throws IOException;
+
+    /**
+     * Human-readable location of the key, recorded alongside document rows.
+     */
+    String describe(String key);
+
+    /**
+     * Splits a hash key into two directory levels ({@code ab/cd/abcd...}) so no
+     * single directory or key prefix grows without bound.
+     */
+    static String shardedName(String key) {
+        return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+}
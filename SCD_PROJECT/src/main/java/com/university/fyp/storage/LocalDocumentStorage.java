@@ -0,0 +1,97 @@
+package com.university.fyp.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Stores content on the local file system under {@code storage.local.root},
+ * sharded into two levels of hash-prefix directories.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+
+    public LocalDocumentStorage(@Value("${storage.local.root:uploads/blobs}") String root) {
+        this.root = Paths.get(root);
+    }
+
+    @Override
+    public boolean put(String key, Path stagedFile) throws IOException {
+        Path target = pathFor(key);
+        try {
+            if (Files.exists(target)) {
+                return false;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(stagedFile, target);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Same content stored concurrently by another upload
+            return false;
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> find(String key) throws IOException {
+        Path path = pathFor(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalStoredObject(path, Files.size(path)));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(pathFor(key));
+    }
+
+    @Override
+    public void forEachKey(Consumer<StoredKey> action) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || !isKey(file.getFileName().toString())) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                action.accept(new StoredKey(file.getFileName().toString(), attributes.size(),
+                        attributes.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    @Override
+    public String describe(String key) {
+        return pathFor(key).toString();
+    }
+
+    // A content hash, optionally with a variant suffix such as ".z"; skips
+    // anything else, e.g. leftovers of an interrupted move
+    private boolean isKey(String name) {
+        if (name.length() < 64 || (name.length() > 64 && name.charAt(64) != '.')) {
+            return false;
+        }
+        return name.chars().limit(64).allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(DocumentStorage.shardedName(key));
+    }
+}
@@ -0,0 +1,27 @@
+package com.university.fyp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Stored content backed by a local file.
+ */
+public record LocalStoredObject(Path path, long size) implements StoredObject {
+
+    @Override
+    public Optional<Path> localPath() {
+        return Optional.of(path);
+    }
+
+    @Override
+    public InputStream open(long start, long length) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channel.position(start);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+}
@@ -0,0 +1,344 @@
+package com.university.fyp.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+/**
+ * Stores content in an S3-compatible object store using path-style URLs
+ * ({@code <endpoint>/<bucket>/ab/cd/<hash>}) and Signature V4 request signing.
+ * A local MinIO container works as a stand-in for development and testing.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "object-store")
+public class ObjectStoreDocumentStorage implements DocumentStorage {
+
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter AMZ_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+
+    public ObjectStoreDocumentStorage(@Value("${storage.object-store.endpoint}") String endpoint,
+            @Value("${storage.object-store.bucket}") String bucket,
+            @Value("${storage.object-store.region:us-east-1}") String region,
+            @Value("${storage.object-store.access-key}") String accessKey,
+            @Value("${storage.object-store.secret-key}") String secretKey) {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    /**
+     * Keys name their content, so rewriting an existing object changes nothing.
+     * The write is still made conditional, and with 100-continue, so stores
+     * that support it neither take the body again nor report it as created.
+     */
+    @Override
+    public boolean put(String key, Path stagedFile) throws IOException {
+        try {
+            HttpRequest request = signed("PUT", key, payloadHash(key, stagedFile))
+                    .header("If-None-Match", "*")
+                    .expectContinue(true)
+                    .PUT(HttpRequest.BodyPublishers.ofFile(stagedFile))
+                    .build();
+            HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 412) {
+                return false;
+            }
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Object store rejected upload of " + key + ": HTTP " + response.statusCode());
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    /**
+     * Looks the object up with the GET that reads it. Only the headers are
+     * received here; the body is left for the first read that starts at the
+     * beginning, and dropped by any other read or by closing the handle.
+     */
+    @Override
+    public Optional<StoredObject> find(String key) throws IOException {
+        HttpResponse<InputStream> response = send(signed("GET", key, EMPTY_SHA256).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("Object store lookup of " + key + " failed: HTTP " + response.statusCode());
+        }
+        OptionalLong size = response.headers().firstValueAsLong("Content-Length");
+        if (size.isEmpty()) {
+            response.body().close();
+            throw new IOException("Object store sent no length for " + key);
+        }
+        return Optional.of(new RemoteObject(key, size.getAsLong(), response.body()));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<Void> response = send(signed("DELETE", key, EMPTY_SHA256).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw new IOException("Object store rejected delete of " + key + ": HTTP " + response.statusCode());
+        }
+    }
+
+    @Override
+    public void forEachKey(Consumer<StoredKey> action) throws IOException {
+        String continuationToken = null;
+        do {
+            // ListObjectsV2 returns at most 1000 keys per page
+            String query = continuationToken == null
+                    ? "list-type=2"
+                    : "continuation-token=" + awsEncode(continuationToken) + "&list-type=2";
+            HttpResponse<InputStream> response = send(signed("GET", "/" + bucket, query, EMPTY_SHA256).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            org.w3c.dom.Document page;
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("Object store listing failed: HTTP " + response.statusCode());
+                }
+                page = parseXml(body);
+            }
+
+            NodeList contents = page.getElementsByTagName("Contents");
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element entry = (Element) contents.item(i);
+                String name = text(entry, "Key");
+                action.accept(new StoredKey(name.substring(name.lastIndexOf('/') + 1),
+                        Long.parseLong(text(entry, "Size")),
+                        Instant.parse(text(entry, "LastModified"))));
+            }
+            continuationToken = "true".equals(text(page.getDocumentElement(), "IsTruncated"))
+                    ? text(page.getDocumentElement(), "NextContinuationToken")
+                    : null;
+        } while (continuationToken != null);
+    }
+
+    @Override
+    public String describe(String key) {
+        return bucket + "/" + DocumentStorage.shardedName(key);
+    }
+
+    // Plain content keys are the SHA-256 of the content and double as the signed
+    // payload hash; variants such as compressed copies are hashed here
+    private static String payloadHash(String key, Path file) throws IOException {
+        if (key.length() == 64) {
+            return key;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private org.w3c.dom.Document parseXml(InputStream body) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(body);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Unreadable object store listing", e);
+        }
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
+    }
+
+    // RFC 3986 encoding as required for SigV4 canonical query strings
+    private static String awsEncode(String value) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling the object store", e);
+        }
+    }
+
+    // Request for a single object
+    private HttpRequest.Builder signed(String method, String key, String payloadHash) {
+        return signed(method, "/" + bucket + "/" + DocumentStorage.shardedName(key), "", payloadHash);
+    }
+
+    /**
+     * Builds a request carrying an AWS Signature Version 4 Authorization header.
+     *
+     * @param canonicalQuery query string with encoded values and parameters in
+     *                       sorted order, or empty
+     */
+    private HttpRequest.Builder signed(String method, String path, String canonicalQuery, String payloadHash) {
+        URI uri = URI.create(endpoint + path + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+        String scope = AMZ_DAY.format(now) + "/" + region + "/s3/aws4_request";
+
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n"
+                + uri.getRawPath() + "\n"
+                + canonicalQuery + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), AMZ_DAY.format(now));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMinutes(5))
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                        + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256Hex(String data) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class RemoteObject implements StoredObject {
+
+        private final String key;
+        private final long size;
+        // Unread body of the lookup, until a read takes it or the handle is closed
+        private InputStream pending;
+
+        RemoteObject(String key, long size, InputStream pending) {
+            this.key = key;
+            this.size = size;
+            this.pending = pending;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public Optional<Path> localPath() {
+            return Optional.empty();
+        }
+
+        @Override
+        public synchronized InputStream open(long start, long length) throws IOException {
+            InputStream body = pending;
+            pending = null;
+            if (body != null) {
+                if (start == 0) {
+                    return new BoundedInputStream(body, length);
+                }
+                body.close();
+            }
+
+            HttpRequest request = signed("GET", key, EMPTY_SHA256)
+                    .header("Range", "bytes=" + start + "-" + (start + length - 1))
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() / 100 != 2) {
+                response.body().close();
+                if (response.statusCode() == 404) {
+                    throw new IOException("Object store no longer has " + key);
+                }
+                throw new IOException("Object store read of " + key + " failed: HTTP " + response.statusCode());
+            }
+            return response.body();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (pending != null) {
+                pending.close();
+                pending = null;
+            }
+        }
+    }
+}
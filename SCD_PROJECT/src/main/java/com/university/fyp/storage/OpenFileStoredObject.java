@@ -0,0 +1,54 @@
+package com.university.fyp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Stored content read from a file that was already open when it was looked
+ * up. Reads keep working if the file is deleted afterwards, so the file is
+ * not exposed by path. Closing it closes the file.
+ */
+public record OpenFileStoredObject(FileChannel channel, long size) implements StoredObject {
+
+    @Override
+    public Optional<Path> localPath() {
+        return Optional.empty();
+    }
+
+    @Override
+    public InputStream open(long start, long length) {
+        // Positional reads, so several streams can share the channel
+        return new InputStream() {
+            private long position = start;
+            private final long end = start + length;
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int len) throws IOException {
+                if (position >= end) {
+                    return -1;
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(len, end - position)),
+                        position);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.university.fyp.storage;
+
+import java.time.Instant;
+
+/**
+ * One entry of a backend listing.
+ */
+public record StoredKey(String key, long size, Instant lastModified) {
+}
@@ -0,0 +1,31 @@
+package com.university.fyp.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Read handle for stored content. Close it once done, as a remote lookup may
+ * hold the response it found the object with.
+ */
+public interface StoredObject extends Closeable {
+
+    long size();
+
+    /**
+     * The backing file when the content is on local disk, which lets downloads
+     * use zero-copy transfer.
+     */
+    Optional<Path> localPath();
+
+    /**
+     * Opens {@code length} bytes starting at {@code start}.
+     */
+    InputStream open(long start, long length) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
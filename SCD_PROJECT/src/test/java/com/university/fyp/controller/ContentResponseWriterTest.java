@@ -0,0 +1,199 @@
+package com.university.fyp.controller;
+
+import com.university.fyp.dto.DocumentContent;
+import com.university.fyp.storage.LocalStoredObject;
+import com.university.fyp.storage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentResponseWriterTest {
+
+    private static final String BODY = "0123456789abcdef";
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path tempDir;
+
+    private final ContentResponseWriter writer = new ContentResponseWriter();
+    private DocumentContent content;
+
+    @BeforeEach
+    void storeFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("content.bin"), BODY);
+        content = new DocumentContent(new LocalStoredObject(file, Files.size(file)), ETAG, "report.pdf",
+                "application/pdf");
+    }
+
+    @Test
+    void sendsWholeFileWithoutRange() throws Exception {
+        MockHttpServletResponse response = write(new MockHttpServletRequest());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(response.getContentLengthLong()).isEqualTo(16);
+        assertThat(response.getContentType()).isEqualTo("application/pdf");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("report.pdf");
+    }
+
+    @Test
+    void sendsRequestedRange() throws Exception {
+        MockHttpServletResponse response = write(range("bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/16");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void sendsSuffixAndOpenEndedRanges() throws Exception {
+        MockHttpServletResponse suffix = write(range("bytes=-4"));
+        assertThat(suffix.getStatus()).isEqualTo(206);
+        assertThat(suffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 12-15/16");
+        assertThat(suffix.getContentAsString()).isEqualTo("cdef");
+
+        MockHttpServletResponse openEnded = write(range("bytes=10-"));
+        assertThat(openEnded.getStatus()).isEqualTo(206);
+        assertThat(openEnded.getContentAsString()).isEqualTo("abcdef");
+
+        MockHttpServletResponse longSuffix = write(range("bytes=-100"));
+        assertThat(longSuffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-15/16");
+    }
+
+    @Test
+    void clampsRangeEndToFileSize() throws Exception {
+        MockHttpServletResponse response = write(range("bytes=14-99"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 14-15/16");
+        assertThat(response.getContentAsString()).isEqualTo("ef");
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        for (String header : new String[] { "bytes=16-20", "bytes=5-2", "bytes=-0" }) {
+            MockHttpServletResponse response = write(range(header));
+
+            assertThat(response.getStatus()).as(header).isEqualTo(416);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */16");
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+    }
+
+    @Test
+    void ignoresRangesItDoesNotServe() throws Exception {
+        for (String header : new String[] { "bytes=0-1,4-5", "items=0-1", "bytes=abc", "bytes=5" }) {
+            MockHttpServletResponse response = write(range(header));
+
+            assertThat(response.getStatus()).as(header).isEqualTo(200);
+            assertThat(response.getContentAsString()).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    void honoursIfRangeOnlyForSameStrongTag() throws Exception {
+        MockHttpServletRequest matching = range("bytes=0-3");
+        matching.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        assertThat(write(matching).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest stale = range("bytes=0-3");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        MockHttpServletResponse staleResponse = write(stale);
+        assertThat(staleResponse.getStatus()).isEqualTo(200);
+        assertThat(staleResponse.getContentAsString()).isEqualTo(BODY);
+
+        MockHttpServletRequest weak = range("bytes=0-3");
+        weak.addHeader(HttpHeaders.IF_RANGE, "W/" + ETAG);
+        assertThat(write(weak).getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest date = range("bytes=0-3");
+        date.addHeader(HttpHeaders.IF_RANGE, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(write(date).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"old\", " + ETAG);
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void handsLocalFileToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = range("bytes=4-7");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(4L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(8L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void relaysRemoteRangeAndClosesObject() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        StoredObject remote = new StoredObject() {
+            @Override
+            public long size() {
+                return BODY.length();
+            }
+
+            @Override
+            public Optional<Path> localPath() {
+                return Optional.empty();
+            }
+
+            @Override
+            public InputStream open(long start, long length) {
+                return new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8), (int) start, (int) length);
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        content = new DocumentContent(remote, ETAG, "report.pdf", null);
+
+        MockHttpServletResponse response = write(range("bytes=8-11"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("89ab");
+        assertThat(response.getContentType()).isEqualTo("application/octet-stream");
+        assertThat(closed).isTrue();
+    }
+
+    private MockHttpServletRequest range(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, header);
+        return request;
+    }
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(content, "private, max-age=0", request, response);
+        return response;
+    }
+}
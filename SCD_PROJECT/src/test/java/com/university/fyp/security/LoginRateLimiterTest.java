@@ -0,0 +1,90 @@
+package com.university.fyp.security;
+
+import com.university.fyp.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void limitsAttemptsPerAccountIgnoringCase() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 3, 10);
+        limiter.checkAllowed("10.0.0.1", "student@uni.edu");
+        limiter.checkAllowed("10.0.0.2", "Student@uni.edu");
+        limiter.checkAllowed("10.0.0.3", "STUDENT@UNI.EDU");
+
+        assertThatThrownBy(() -> limiter.checkAllowed("10.0.0.4", "student@uni.edu"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("account")
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isEqualTo(6));
+        assertThatCode(() -> limiter.checkAllowed("10.0.0.4", "other@uni.edu")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void limitsAttemptsPerAddressAcrossAccounts() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 60, 10, 10);
+        limiter.checkAllowed("10.0.0.1", "a@uni.edu");
+        limiter.checkAllowed("10.0.0.1", "b@uni.edu");
+
+        assertThatThrownBy(() -> limiter.checkAllowed("10.0.0.1", "c@uni.edu"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("address")
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isEqualTo(1));
+        assertThatCode(() -> limiter.checkAllowed("10.0.0.2", "c@uni.edu")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        // One token every 100 ms
+        LoginRateLimiter.TokenBucket bucket = new LoginRateLimiter.TokenBucket(2, 600);
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.isFull()).isFalse();
+
+        Thread.sleep(250);
+
+        assertThat(bucket.tryConsume()).isTrue();
+    }
+
+    @Test
+    void refillStopsAtCapacity() throws Exception {
+        LoginRateLimiter.TokenBucket bucket = new LoginRateLimiter.TokenBucket(2, 600);
+        bucket.tryConsume();
+
+        // Long enough for five tokens, but only one fits
+        Thread.sleep(500);
+
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void newAddressesShareOverflowBucketOnceKeyLimitIsReached() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 100_000, 1);
+        for (int i = 0; i < 50_000; i++) {
+            limiter.checkAllowed("ip-" + i, "user@uni.edu");
+        }
+
+        limiter.checkAllowed("late-1", "user@uni.edu");
+        assertThatThrownBy(() -> limiter.checkAllowed("late-2", "user@uni.edu"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void evictionKeepsBucketsThatAreNotFull() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 1, 1, 1);
+        limiter.checkAllowed("10.0.0.1", "student@uni.edu");
+
+        limiter.evictIdleBuckets();
+
+        // Dropping the used bucket would have handed out a fresh token
+        assertThatThrownBy(() -> limiter.checkAllowed("10.0.0.1", "student@uni.edu"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+}
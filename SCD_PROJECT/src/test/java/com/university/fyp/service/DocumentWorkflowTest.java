@@ -0,0 +1,178 @@
+package com.university.fyp.service;
+
+import com.university.fyp.entity.Deadline;
+import com.university.fyp.entity.Document;
+import com.university.fyp.entity.Document.DocumentStatus;
+import com.university.fyp.entity.DocumentTransition.Operation;
+import com.university.fyp.entity.Group;
+import com.university.fyp.entity.Notification;
+import com.university.fyp.entity.User;
+import com.university.fyp.event.DocumentTransitionedEvent;
+import com.university.fyp.exception.StatusConflictException;
+import com.university.fyp.repository.DocumentRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DocumentWorkflowTest {
+
+    private DocumentRepository documentRepository;
+    private NotificationService notificationService;
+    private AuthService authService;
+    private DeadlineCache deadlineCache;
+    private ApplicationEventPublisher eventPublisher;
+    private DocumentWorkflow workflow;
+
+    private User supervisor;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(DocumentRepository.class);
+        // The real compare-and-set wrapper around the stubbed update
+        doCallRealMethod().when(documentRepository).transition(any(), any());
+        notificationService = mock(NotificationService.class);
+        authService = mock(AuthService.class);
+        deadlineCache = mock(DeadlineCache.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        workflow = new DocumentWorkflow(documentRepository, notificationService, authService, deadlineCache,
+                eventPublisher);
+
+        supervisor = new User();
+        supervisor.setId(7L);
+        Group group = new Group();
+        group.setId(3L);
+        group.setGroupName("Team A");
+        group.setSupervisor(supervisor);
+
+        document = new Document();
+        document.setId(42L);
+        document.setTitle("Proposal");
+        document.setGroup(group);
+        document.setCreatedAt(Instant.now().minusSeconds(60));
+    }
+
+    @Test
+    void submitMovesDraftAndAppliesSideEffects() {
+        actAs("STUDENT");
+        document.setStatus(DocumentStatus.DRAFT);
+        Deadline deadline = new Deadline();
+        deadline.setId(5L);
+        deadline.setDueDate(Instant.now().minusSeconds(3600));
+        document.setDeadline(deadline);
+        when(deadlineCache.find(5L)).thenReturn(Optional.empty());
+        when(documentRepository.compareAndSetStatus(42L, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED))
+                .thenReturn(1);
+
+        DocumentWorkflow.Rule rule = workflow.apply(document, Operation.SUBMIT, DocumentStatus.SUBMITTED);
+
+        assertThat(rule.effects()).contains(DocumentWorkflow.SideEffect.STAMP_SUBMISSION);
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+        assertThat(document.getSubmittedAt()).isNotNull();
+        assertThat(document.getIsLate()).isTrue();
+        assertThat(document.getStatusChangedAt()).isEqualTo(document.getSubmittedAt());
+        verify(notificationService).createNotification(eq(supervisor), anyString(),
+                eq(Notification.NotificationType.GENERAL), eq("Document"), eq(42L));
+
+        ArgumentCaptor<DocumentTransitionedEvent> event = ArgumentCaptor.forClass(DocumentTransitionedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().fromStatus()).isEqualTo(DocumentStatus.DRAFT);
+        assertThat(event.getValue().toStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+        assertThat(event.getValue().operation()).isEqualTo(Operation.SUBMIT);
+        assertThat(event.getValue().durationMs()).isGreaterThanOrEqualTo(60_000);
+    }
+
+    @Test
+    void lostCompareAndSetRaisesConflictWithoutSideEffects() {
+        actAs("SUPERVISOR");
+        document.setStatus(DocumentStatus.SUBMITTED);
+        when(documentRepository.compareAndSetStatus(42L, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> workflow.apply(document, Operation.REVIEW, DocumentStatus.APPROVED))
+                .isInstanceOf(StatusConflictException.class)
+                .hasMessageContaining("SUBMITTED");
+
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+        assertThat(document.getStatusChangedAt()).isNull();
+        verifyNoInteractions(notificationService, eventPublisher);
+    }
+
+    @Test
+    void updateIsConditionalOnStatusTheDocumentWasReadWith() {
+        actAs("COMMITTEE_MEMBER");
+        document.setStatus(DocumentStatus.APPROVED);
+        when(documentRepository.compareAndSetStatus(42L, DocumentStatus.APPROVED, DocumentStatus.GRADED))
+                .thenReturn(1);
+
+        workflow.apply(document, Operation.GRADE, DocumentStatus.GRADED);
+
+        verify(documentRepository).compareAndSetStatus(42L, DocumentStatus.APPROVED, DocumentStatus.GRADED);
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.GRADED);
+    }
+
+    @Test
+    void rejectsTransitionWithoutRule() {
+        actAs("STUDENT");
+        document.setStatus(DocumentStatus.GRADED);
+
+        assertThatThrownBy(() -> workflow.apply(document, Operation.SUBMIT, DocumentStatus.SUBMITTED))
+                .hasMessage("Invalid status transition from GRADED to SUBMITTED");
+        verify(documentRepository, never()).compareAndSetStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void rejectsRoleNotListedForRule() {
+        actAs("STUDENT");
+        document.setStatus(DocumentStatus.SUBMITTED);
+
+        assertThatThrownBy(() -> workflow.apply(document, Operation.REVIEW, DocumentStatus.APPROVED))
+                .hasMessageContaining("permission");
+        verify(documentRepository, never()).compareAndSetStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void stayingInSameStateIsNotLogged() {
+        actAs("STUDENT");
+        document.setStatus(DocumentStatus.DRAFT);
+        when(documentRepository.compareAndSetStatus(42L, DocumentStatus.DRAFT, DocumentStatus.DRAFT)).thenReturn(1);
+
+        workflow.apply(document, Operation.UPLOAD, DocumentStatus.DRAFT);
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(document.getStatusChangedAt()).isNull();
+    }
+
+    @Test
+    void allowsOnlyTransitionsInTheTable() {
+        assertThat(workflow.allows(Operation.ADD_REVIEW, DocumentStatus.UNDER_REVIEW, DocumentStatus.APPROVED))
+                .isTrue();
+        assertThat(workflow.allows(Operation.ADD_REVIEW, DocumentStatus.APPROVED, DocumentStatus.GRADED))
+                .isFalse();
+        assertThat(workflow.allows(Operation.SET_STATUS, DocumentStatus.GRADED, DocumentStatus.DRAFT)).isFalse();
+    }
+
+    private void actAs(String role) {
+        when(authService.getCurrentPrincipal())
+                .thenReturn(new AuthenticatedUser(1L, "user@uni.edu", "", role, 3L, Set.of(3L), true));
+    }
+}
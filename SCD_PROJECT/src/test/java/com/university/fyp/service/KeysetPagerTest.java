@@ -0,0 +1,92 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.CursorPage;
+import com.university.fyp.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagerTest {
+
+    private final KeysetPager pager = new KeysetPager(20, 100);
+
+    private record Row(Instant createdAt, Long id) {
+    }
+
+    @Test
+    void emptyCursorStartsFromNewestOrOldest() {
+        assertThat(pager.decode(null).id()).isEqualTo(Long.MAX_VALUE);
+        assertThat(pager.decode(" ").createdAt()).isAfter(Instant.now());
+        assertThat(pager.decodeAscending(null)).isEqualTo(new KeysetPager.Cursor(Instant.EPOCH, 0L));
+    }
+
+    @Test
+    void nextCursorDecodesToLastRowOfPage() {
+        Instant createdAt = Instant.parse("2024-03-01T10:15:30.123456789Z");
+        List<Row> rows = List.of(
+                new Row(createdAt.plusSeconds(2), 9L),
+                new Row(createdAt, 7L),
+                new Row(createdAt, 5L));
+
+        CursorPage<Row> page = pager.page(rows, 2, Row::createdAt, Row::id);
+
+        assertThat(page.getItems()).containsExactly(rows.get(0), rows.get(1));
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(pager.decode(page.getNextCursor())).isEqualTo(new KeysetPager.Cursor(createdAt, 7L));
+        assertThat(pager.decodeAscending(page.getNextCursor())).isEqualTo(new KeysetPager.Cursor(createdAt, 7L));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        Instant now = Instant.now();
+        List<Row> full = List.of(new Row(now, 2L), new Row(now, 1L));
+
+        CursorPage<Row> exact = pager.page(full, 2, Row::createdAt, Row::id);
+        assertThat(exact.getItems()).hasSize(2);
+        assertThat(exact.isHasMore()).isFalse();
+        assertThat(exact.getNextCursor()).isNull();
+
+        CursorPage<Row> empty = pager.page(List.<Row>of(), 2, Row::createdAt, Row::id);
+        assertThat(empty.getItems()).isEmpty();
+        assertThat(empty.isHasMore()).isFalse();
+    }
+
+    @Test
+    void probeFetchesOneRowMoreThanThePage() {
+        assertThat(pager.probe(20).getPageSize()).isEqualTo(21);
+        assertThat(pager.probe(20).getPageNumber()).isZero();
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        for (String token : List.of("not base64!", encode("1:2"), encode("1:2:3:4"), encode("a:b:c"),
+                encode(Long.MAX_VALUE + ":0:1"))) {
+            assertThatThrownBy(() -> pager.decode(token))
+                    .isInstanceOf(InvalidPageRequestException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void limitDefaultsAndIsClamped() {
+        assertThat(pager.limit(null)).isEqualTo(20);
+        assertThat(pager.limit(5)).isEqualTo(5);
+        assertThat(pager.limit(1000)).isEqualTo(100);
+    }
+
+    @Test
+    void nonPositiveLimitIsRejected() {
+        assertThatThrownBy(() -> pager.limit(0)).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> pager.limit(-3)).isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
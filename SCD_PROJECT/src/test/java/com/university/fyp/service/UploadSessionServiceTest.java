@@ -0,0 +1,253 @@
+package com.university.fyp.service;
+
+import com.university.fyp.dto.UploadSessionRequest;
+import com.university.fyp.dto.UploadSessionResponse;
+import com.university.fyp.entity.Document;
+import com.university.fyp.entity.UploadChunk;
+import com.university.fyp.entity.UploadSession;
+import com.university.fyp.repository.UploadChunkRepository;
+import com.university.fyp.repository.UploadSessionRepository;
+import com.university.fyp.security.AuthenticatedUser;
+import com.university.fyp.security.GroupAccessEvaluator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadSessionServiceTest {
+
+    private static final int CHUNK_SIZE = 4;
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, UploadSession> sessions = new HashMap<>();
+    private final Set<Integer> chunks = new TreeSet<>();
+
+    private UploadSessionRepository uploadSessionRepository;
+    private UploadChunkRepository uploadChunkRepository;
+    private DocumentUploadService documentUploadService;
+    private AuthService authService;
+    private UploadSessionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploadSessionRepository = mock(UploadSessionRepository.class);
+        when(uploadSessionRepository.save(any())).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            sessions.put(session.getId(), session);
+            return session;
+        });
+        when(uploadSessionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(sessions.get(invocation.<String>getArgument(0))));
+
+        uploadChunkRepository = mock(UploadChunkRepository.class);
+        when(uploadChunkRepository.existsBySessionIdAndChunkIndex(anyString(), anyInt()))
+                .thenAnswer(invocation -> chunks.contains(invocation.<Integer>getArgument(1)));
+        when(uploadChunkRepository.save(any())).thenAnswer(invocation -> {
+            chunks.add(invocation.<UploadChunk>getArgument(0).getChunkIndex());
+            return invocation.getArgument(0);
+        });
+        when(uploadChunkRepository.findChunkIndexes(anyString())).thenAnswer(invocation -> chunks.stream().toList());
+        when(uploadChunkRepository.countBySessionId(anyString())).thenAnswer(invocation -> (long) chunks.size());
+
+        BlobStorageService blobStorageService = mock(BlobStorageService.class);
+        when(blobStorageService.stagingDir()).thenReturn(tempDir);
+        when(blobStorageService.stageFile(any())).thenCallRealMethod();
+
+        authService = mock(AuthService.class);
+        when(authService.getCurrentPrincipal()).thenReturn(user(1L));
+        GroupAccessEvaluator groupAccessEvaluator = mock(GroupAccessEvaluator.class);
+        when(groupAccessEvaluator.canAccessGroup(any(), anyLong())).thenReturn(true);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        documentUploadService = mock(DocumentUploadService.class);
+        service = new UploadSessionService(uploadSessionRepository, uploadChunkRepository, documentUploadService,
+                blobStorageService, authService, groupAccessEvaluator, transactionTemplate, CHUNK_SIZE, 1000, 24);
+    }
+
+    @Test
+    void createSessionPresizesFileAndSplitsIntoChunks() throws Exception {
+        UploadSessionResponse response = service.createSession(request(null));
+
+        assertThat(response.getChunkSize()).isEqualTo(CHUNK_SIZE);
+        assertThat(response.getTotalChunks()).isEqualTo(3);
+        assertThat(response.getReceivedChunks()).isEmpty();
+        assertThat(Files.size(partFile(response.getSessionId()))).isEqualTo(CONTENT.length());
+    }
+
+    @Test
+    void assemblesChunksSentOutOfOrder() throws Exception {
+        String sessionId = service.createSession(request(sha256(CONTENT))).getSessionId();
+
+        write(sessionId, 8);
+        write(sessionId, 0);
+        UploadSessionResponse response = write(sessionId, 4);
+
+        assertThat(response.getReceivedChunks()).containsExactly(0, 1, 2);
+        assertThat(Files.readString(partFile(sessionId))).isEqualTo(CONTENT);
+
+        service.commit(sessionId);
+        ArgumentCaptor<BlobStorageService.Staged> staged = ArgumentCaptor.forClass(BlobStorageService.Staged.class);
+        verify(documentUploadService).uploadStaged(eq(10L), eq("Proposal"), eq(Document.DocumentType.PROPOSAL),
+                staged.capture(), any(), any(), any());
+        assertThat(staged.getValue().contentHash()).isEqualTo(sha256(CONTENT));
+        assertThat(staged.getValue().size()).isEqualTo(CONTENT.length());
+    }
+
+    @Test
+    void resumesWithOnlyTheMissingChunks() throws Exception {
+        String sessionId = service.createSession(request(null)).getSessionId();
+        write(sessionId, 0);
+        write(sessionId, 8);
+
+        assertThat(service.getSession(sessionId).getReceivedChunks()).containsExactly(0, 2);
+        assertThatThrownBy(() -> service.commit(sessionId))
+                .hasMessage("Upload incomplete: 2 of 3 chunks received");
+        verify(documentUploadService, never()).uploadStaged(any(), any(), any(), any(), any(), any(), any());
+
+        write(sessionId, 4);
+        service.commit(sessionId);
+        verify(documentUploadService).uploadStaged(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void resentChunkOverwritesAndIsRecordedOnce() throws Exception {
+        String sessionId = service.createSession(request(null)).getSessionId();
+        service.writeChunk(sessionId, 4, body("XXXX"));
+        UploadSessionResponse response = write(sessionId, 4);
+
+        assertThat(response.getReceivedChunks()).containsExactly(1);
+        verify(uploadChunkRepository, times(1)).save(any());
+        assertThat(Files.readString(partFile(sessionId)).substring(4, 8)).isEqualTo("4567");
+    }
+
+    @Test
+    void rejectsChunksThatDoNotFitTheLayout() throws Exception {
+        String sessionId = service.createSession(request(null)).getSessionId();
+
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 2, body("2345")))
+                .hasMessageContaining("multiple of 4");
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 12, body("ab")))
+                .hasMessageContaining("multiple of 4");
+        assertThatThrownBy(() -> service.writeChunk(sessionId, -4, body("ab")))
+                .hasMessageContaining("multiple of 4");
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 0, body("012345")))
+                .hasMessage("Chunk is larger than 4 bytes");
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 0, body("01")))
+                .hasMessage("Incomplete chunk: expected 4 bytes, got 2");
+        // The last chunk is the remainder of the file
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 8, body("89a")))
+                .hasMessage("Chunk is larger than 2 bytes");
+
+        assertThat(chunks).isEmpty();
+    }
+
+    @Test
+    void rejectsContentNotMatchingExpectedHash() throws Exception {
+        String sessionId = service.createSession(request(sha256("something else"))).getSessionId();
+        write(sessionId, 0);
+        write(sessionId, 4);
+        write(sessionId, 8);
+
+        assertThatThrownBy(() -> service.commit(sessionId))
+                .hasMessage("Uploaded content does not match the expected SHA-256");
+        verify(documentUploadService, never()).uploadStaged(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void removesSessionOnceFileIsHandedToStorage() throws Exception {
+        String sessionId = service.createSession(request(null)).getSessionId();
+        write(sessionId, 0);
+        write(sessionId, 4);
+        write(sessionId, 8);
+        when(documentUploadService.uploadStaged(any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Files.delete(invocation.<BlobStorageService.Staged>getArgument(3).path());
+                    return null;
+                });
+
+        service.commit(sessionId);
+
+        verify(uploadChunkRepository).deleteBySessionId(sessionId);
+        verify(uploadSessionRepository).deleteById(sessionId);
+    }
+
+    @Test
+    void hidesSessionsOfOtherUsers() throws Exception {
+        String sessionId = service.createSession(request(null)).getSessionId();
+        when(authService.getCurrentPrincipal()).thenReturn(user(2L));
+
+        assertThatThrownBy(() -> service.getSession(sessionId)).hasMessage("Upload session not found");
+        assertThatThrownBy(() -> service.writeChunk(sessionId, 0, body("0123")))
+                .hasMessage("Upload session not found");
+    }
+
+    private UploadSessionResponse write(String sessionId, int offset) throws Exception {
+        String chunk = CONTENT.substring(offset, Math.min(offset + CHUNK_SIZE, CONTENT.length()));
+        return service.writeChunk(sessionId, offset, body(chunk));
+    }
+
+    private UploadSessionRequest request(String sha256) {
+        UploadSessionRequest request = new UploadSessionRequest();
+        request.setGroupId(10L);
+        request.setTitle("Proposal");
+        request.setType(Document.DocumentType.PROPOSAL);
+        request.setFileName("proposal.pdf");
+        request.setTotalSize((long) CONTENT.length());
+        request.setSha256(sha256);
+        return request;
+    }
+
+    private Path partFile(String sessionId) {
+        return tempDir.resolve("sessions").resolve(sessionId + ".part");
+    }
+
+    private static AuthenticatedUser user(Long id) {
+        return new AuthenticatedUser(id, "student" + id + "@uni.edu", "", "STUDENT", 10L, Set.of(), true);
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
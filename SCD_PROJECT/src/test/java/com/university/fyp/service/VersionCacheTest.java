@@ -0,0 +1,93 @@
+package com.university.fyp.service;
+
+import com.university.fyp.storage.LocalStoredObject;
+import com.university.fyp.storage.StoredObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rebuildsOnMissAndServesHitFromCache() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VersionCache cache = new VersionCache(registry, tempDir.resolve("cache").toString(), 1024);
+        StoredObject compressed = compress("version one");
+
+        try (StoredObject first = cache.get("aaaa", compressed)) {
+            assertThat(read(first, 0, first.size())).isEqualTo("version one");
+        }
+        try (StoredObject second = cache.get("aaaa", compressed)) {
+            assertThat(read(second, 8, 3)).isEqualTo("one");
+        }
+
+        assertThat(registry.counter("fyp.version.cache", "result", "miss").count()).isEqualTo(1);
+        assertThat(registry.counter("fyp.version.cache", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void readerKeepsContentWhenEntryIsRemoved() throws Exception {
+        VersionCache cache = new VersionCache(new SimpleMeterRegistry(), tempDir.resolve("cache").toString(), 1024);
+        StoredObject compressed = compress("still readable");
+
+        try (StoredObject cached = cache.get("bbbb", compressed)) {
+            cache.remove("bbbb");
+            assertThat(tempDir.resolve("cache").resolve("bbbb")).doesNotExist();
+            assertThat(read(cached, 0, cached.size())).isEqualTo("still readable");
+        }
+    }
+
+    @Test
+    void readerKeepsContentWhenEntryIsEvicted() throws Exception {
+        // Room for one entry only, so caching the second evicts the first
+        VersionCache cache = new VersionCache(new SimpleMeterRegistry(), tempDir.resolve("cache").toString(), 20);
+
+        try (StoredObject first = cache.get("cccc", compress("first old version"))) {
+            cache.get("dddd", compress("second old version")).close();
+            assertThat(tempDir.resolve("cache").resolve("cccc")).doesNotExist();
+            assertThat(read(first, 0, first.size())).isEqualTo("first old version");
+        }
+    }
+
+    @Test
+    void rebuildsEntryWhoseFileDisappeared() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VersionCache cache = new VersionCache(registry, tempDir.resolve("cache").toString(), 1024);
+        StoredObject compressed = compress("rebuilt again");
+        cache.get("eeee", compressed).close();
+
+        Files.delete(tempDir.resolve("cache").resolve("eeee"));
+
+        try (StoredObject cached = cache.get("eeee", compressed)) {
+            assertThat(read(cached, 0, cached.size())).isEqualTo("rebuilt again");
+        }
+        assertThat(registry.counter("fyp.version.cache", "result", "miss").count()).isEqualTo(2);
+    }
+
+    private StoredObject compress(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "compressed-", ".z");
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new LocalStoredObject(file, Files.size(file));
+    }
+
+    private static String read(StoredObject object, long start, long length) throws IOException {
+        try (InputStream in = object.open(start, length)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
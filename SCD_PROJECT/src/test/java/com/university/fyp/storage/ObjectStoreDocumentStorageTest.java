@@ -0,0 +1,273 @@
+package com.university.fyp.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the object store client against a small in-process stand-in for the
+ * S3 API: path-style objects with conditional PUT, ranged GET, DELETE and
+ * paged ListObjectsV2.
+ */
+class ObjectStoreDocumentStorageTest {
+
+    private static final String BUCKET = "documents";
+    private static final int PAGE_SIZE = 2;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private ObjectStoreDocumentStorage storage;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/" + BUCKET, this::handle);
+        server.start();
+        storage = new ObjectStoreDocumentStorage("http://127.0.0.1:" + server.getAddress().getPort() + "/", BUCKET,
+                "us-east-1", "access", "secret");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void putStoresObjectOnceAndConsumesStagedFile() throws Exception {
+        byte[] content = "first version".getBytes(StandardCharsets.UTF_8);
+        String key = sha256(content);
+
+        Path staged = stage(content);
+        assertThat(storage.put(key, staged)).isTrue();
+        assertThat(staged).doesNotExist();
+        assertThat(objects.get(DocumentStorage.shardedName(key))).isEqualTo(content);
+
+        Path again = stage(content);
+        assertThat(storage.put(key, again)).isFalse();
+        assertThat(again).doesNotExist();
+
+        assertThat(requests).containsExactly("PUT", "PUT");
+    }
+
+    @Test
+    void findReadsWholeObjectWithSingleRequest() throws Exception {
+        byte[] content = "the whole document".getBytes(StandardCharsets.UTF_8);
+        String key = sha256(content);
+        storage.put(key, stage(content));
+        requests.clear();
+
+        Optional<StoredObject> found = storage.find(key);
+        assertThat(found).isPresent();
+        try (StoredObject object = found.get(); InputStream in = object.open(0, object.size())) {
+            assertThat(object.size()).isEqualTo(content.length);
+            assertThat(object.localPath()).isEmpty();
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        assertThat(requests).containsExactly("GET");
+    }
+
+    @Test
+    void findReturnsEmptyForMissingObject() throws Exception {
+        assertThat(storage.find(sha256("missing".getBytes(StandardCharsets.UTF_8)))).isEmpty();
+        assertThat(requests).containsExactly("GET");
+    }
+
+    @Test
+    void rangedReadFetchesOnlyRequestedBytes() throws Exception {
+        byte[] content = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+        String key = sha256(content);
+        storage.put(key, stage(content));
+
+        try (StoredObject object = storage.find(key).orElseThrow()) {
+            try (InputStream in = object.open(4, 6)) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("456789");
+            }
+            try (InputStream in = object.open(0, 3)) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("012");
+            }
+        }
+    }
+
+    @Test
+    void prefixReadUsesBodyOfLookup() throws Exception {
+        byte[] content = "%PDF-1.7 rest of file".getBytes(StandardCharsets.UTF_8);
+        String key = sha256(content);
+        storage.put(key, stage(content));
+        requests.clear();
+
+        try (StoredObject object = storage.find(key).orElseThrow(); InputStream in = object.open(0, 5)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("%PDF-");
+        }
+        assertThat(requests).containsExactly("GET");
+    }
+
+    @Test
+    void deleteRemovesObjectAndToleratesMissingOne() throws Exception {
+        byte[] content = "to be deleted".getBytes(StandardCharsets.UTF_8);
+        String key = sha256(content);
+        storage.put(key, stage(content));
+
+        storage.delete(key);
+        assertThat(objects).isEmpty();
+        assertThat(storage.find(key)).isEmpty();
+
+        storage.delete(key);
+    }
+
+    @Test
+    void forEachKeyVisitsEveryPage() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            byte[] content = ("document " + i).getBytes(StandardCharsets.UTF_8);
+            String key = sha256(content);
+            storage.put(key, stage(content));
+            keys.add(key);
+        }
+        Path compressed = stage(new byte[] { 1, 2, 3 });
+        storage.put(keys.get(0) + ".z", compressed);
+        keys.add(keys.get(0) + ".z");
+        requests.clear();
+
+        List<StoredKey> listed = new ArrayList<>();
+        storage.forEachKey(listed::add);
+
+        assertThat(listed).extracting(StoredKey::key).containsExactlyInAnyOrderElementsOf(keys);
+        assertThat(listed).filteredOn(entry -> entry.key().endsWith(".z"))
+                .singleElement()
+                .satisfies(entry -> assertThat(entry.size()).isEqualTo(3));
+        assertThat(requests).hasSize(3);
+    }
+
+    private Path stage(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "staged-", ".bin"), content);
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.add(exchange.getRequestMethod());
+            if (!exchange.getRequestHeaders().getFirst("Authorization").startsWith("AWS4-HMAC-SHA256 ")) {
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getRawPath();
+            String name = path.substring(("/" + BUCKET).length()).replaceFirst("^/", "");
+            if (name.isEmpty()) {
+                list(exchange);
+                return;
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    if ("*".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))
+                            && objects.containsKey(name)) {
+                        exchange.sendResponseHeaders(412, -1);
+                        return;
+                    }
+                    objects.put(name, exchange.getRequestBody().readAllBytes());
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    byte[] content = objects.get(name);
+                    if (content == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    Matcher matcher = range != null ? RANGE.matcher(range) : null;
+                    if (matcher != null && matcher.matches()) {
+                        int start = Integer.parseInt(matcher.group(1));
+                        int end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+                        exchange.getResponseHeaders().set("Content-Range",
+                                "bytes " + start + "-" + end + "/" + content.length);
+                        exchange.sendResponseHeaders(206, end - start + 1);
+                        exchange.getResponseBody().write(content, start, end - start + 1);
+                    } else {
+                        exchange.sendResponseHeaders(200, content.length);
+                        exchange.getResponseBody().write(content);
+                    }
+                }
+                case "DELETE" -> {
+                    objects.remove(name);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    // ListObjectsV2, using the last key of a page as its continuation token
+    private void list(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String after = null;
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("continuation-token=")) {
+                after = URLDecoder.decode(parameter.substring("continuation-token=".length()),
+                        StandardCharsets.UTF_8);
+            }
+        }
+
+        TreeMap<String, byte[]> sorted = new TreeMap<>(objects);
+        Map<String, byte[]> remaining = after != null ? sorted.tailMap(after, false) : sorted;
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">");
+        String last = null;
+        int count = 0;
+        for (Map.Entry<String, byte[]> entry : remaining.entrySet()) {
+            if (count == PAGE_SIZE) {
+                break;
+            }
+            xml.append("<Contents><Key>").append(entry.getKey()).append("</Key>")
+                    .append("<LastModified>").append(Instant.now()).append("</LastModified>")
+                    .append("<Size>").append(entry.getValue().length).append("</Size></Contents>");
+            last = entry.getKey();
+            count++;
+        }
+        boolean truncated = last != null && sorted.higherKey(last) != null;
+        xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(last).append("</NextContinuationToken>");
+        }
+        xml.append("</ListBucketResult>");
+
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}